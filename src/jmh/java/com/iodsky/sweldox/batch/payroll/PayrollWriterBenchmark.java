@@ -0,0 +1,184 @@
+package com.iodsky.sweldox.batch.payroll;
+
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.payroll.benefit.BenefitType;
+import com.iodsky.sweldox.payroll.core.Payroll;
+import com.iodsky.sweldox.payroll.core.PayrollBenefit;
+import com.iodsky.sweldox.payroll.core.PayrollMetrics;
+import com.iodsky.sweldox.payroll.deduction.Deduction;
+import com.iodsky.sweldox.payroll.deduction.DeductionType;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtd;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtdService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payrolls written per second by {@link PayrollJdbcWriter}, compared with one INSERT per row as
+ * issued by the cascading JPA writer. Each operation writes a chunk in its own transaction.
+ * <p>
+ * Runs against an in-memory H2 database by default, which only shows the client side cost. Pass
+ * {@code -p jdbcUrl=jdbc:postgresql://host/scratch?reWriteBatchedInserts=true -p user=... -p password=...}
+ * to measure against an empty scratch PostgreSQL database; the tables are created without foreign keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayrollWriterBenchmark {
+
+    private static final int CHUNK_SIZE = 100;
+
+    @Param("jdbc:h2:mem:payroll;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PayrollJdbcWriter writer;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(jdbcUrl, user, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        // The year-to-date upsert is left out: H2 has no ON CONFLICT DO UPDATE and the row by row baseline skips it too
+        PayrollYtdService payrollYtdService = new PayrollYtdService(jdbcTemplate) {
+            @Override
+            public void accumulate(Collection<PayrollYtd> changes) {
+            }
+        };
+        writer = new PayrollJdbcWriter(jdbcTemplate, Optional::empty, new PayrollMetrics(new SimpleMeterRegistry(), 1), payrollYtdService);
+
+        for (String table : List.of("payroll", "deduction", "payroll_benefits")) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " (" + columns(table) + ")");
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("DELETE FROM payroll_benefits");
+        jdbcTemplate.execute("DELETE FROM deduction");
+        jdbcTemplate.execute("DELETE FROM payroll");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK_SIZE)
+    public void batchedWrite() {
+        Chunk<Payroll> chunk = new Chunk<>(payrolls());
+        transactionTemplate.executeWithoutResult(status -> writer.write(chunk));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK_SIZE)
+    public void rowByRowWrite() {
+        List<Payroll> payrolls = payrolls();
+        transactionTemplate.executeWithoutResult(status -> payrolls.forEach(this::insertRowByRow));
+    }
+
+    private void insertRowByRow(Payroll payroll) {
+        Timestamp now = Timestamp.from(Instant.now());
+        UUID payrollId = UUID.randomUUID();
+
+        jdbcTemplate.update("""
+                INSERT INTO payroll (id, employee_id, period_start_date, period_end_date, pay_date, days_worked,
+                                     overtime, monthly_rate, daily_rate, gross_pay, total_benefits, total_deductions, net_pay,
+                                     created_at, updated_at, created_by, last_modified_by, version)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NULL, NULL, 0)
+                """,
+                payrollId, payroll.getEmployee().getId(), payroll.getPeriodStartDate(), payroll.getPeriodEndDate(),
+                payroll.getPayDate(), payroll.getDaysWorked(), payroll.getOvertime(), payroll.getMonthlyRate(),
+                payroll.getDailyRate(), payroll.getGrossPay(), payroll.getTotalBenefits(), payroll.getTotalDeductions(),
+                payroll.getNetPay(), now, now);
+
+        for (Deduction deduction : payroll.getDeductions()) {
+            jdbcTemplate.update("""
+                    INSERT INTO deduction (id, payroll_id, deduction_code, amount, created_at, updated_at, version)
+                    VALUES (?, ?, ?, ?, ?, ?, 0)
+                    """, UUID.randomUUID(), payrollId, deduction.getDeductionType().getCode(), deduction.getAmount(), now, now);
+        }
+
+        for (PayrollBenefit benefit : payroll.getBenefits()) {
+            jdbcTemplate.update("""
+                    INSERT INTO payroll_benefits (id, payroll_id, benefit_type_id, amount, created_at, updated_at, version)
+                    VALUES (?, ?, ?, ?, ?, ?, 0)
+                    """, UUID.randomUUID(), payrollId, benefit.getBenefitType().getId(), benefit.getAmount(), now, now);
+        }
+    }
+
+    private static List<Payroll> payrolls() {
+        List<Payroll> payrolls = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            List<Deduction> deductions = new ArrayList<>();
+            for (String code : List.of("SSS", "PHIC", "HDMF", "TAX")) {
+                deductions.add(Deduction.builder()
+                        .deductionType(DeductionType.builder().code(code).build())
+                        .amount(new BigDecimal("812.50"))
+                        .build());
+            }
+
+            List<PayrollBenefit> benefits = new ArrayList<>();
+            for (String type : List.of("RICE", "PHONE")) {
+                benefits.add(PayrollBenefit.builder()
+                        .benefitType(BenefitType.builder().id(type).build())
+                        .amount(new BigDecimal("1500.00"))
+                        .build());
+            }
+
+            payrolls.add(Payroll.builder()
+                    .employee(Employee.builder().id((long) i).build())
+                    .periodStartDate(LocalDate.of(2025, 1, 1))
+                    .periodEndDate(LocalDate.of(2025, 1, 15))
+                    .payDate(LocalDate.of(2025, 1, 20))
+                    .daysWorked(11)
+                    .overtime(new BigDecimal("4.50"))
+                    .monthlyRate(new BigDecimal("45000.00"))
+                    .dailyRate(new BigDecimal("2045.44"))
+                    .grossPay(new BigDecimal("22500.00"))
+                    .totalBenefits(new BigDecimal("3000.00"))
+                    .totalDeductions(new BigDecimal("3250.00"))
+                    .netPay(new BigDecimal("22250.00"))
+                    .deductions(deductions)
+                    .benefits(benefits)
+                    .build());
+        }
+        return payrolls;
+    }
+
+    private static String columns(String table) {
+        String audit = "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP, created_by UUID, last_modified_by UUID, version BIGINT";
+        return switch (table) {
+            case "payroll" -> "id UUID PRIMARY KEY, employee_id BIGINT NOT NULL, period_start_date DATE, period_end_date DATE, "
+                    + "pay_date DATE, days_worked INTEGER, overtime NUMERIC(19, 2), monthly_rate NUMERIC(19, 2), "
+                    + "daily_rate NUMERIC(19, 2), gross_pay NUMERIC(19, 2), total_benefits NUMERIC(19, 2), "
+                    + "total_deductions NUMERIC(19, 2), net_pay NUMERIC(19, 2), " + audit;
+            case "deduction" -> "id UUID PRIMARY KEY, payroll_id UUID NOT NULL, deduction_code VARCHAR(255) NOT NULL, "
+                    + "amount NUMERIC(19, 2), " + audit;
+            default -> "id UUID PRIMARY KEY, payroll_id UUID NOT NULL, benefit_type_id VARCHAR(255) NOT NULL, "
+                    + "amount NUMERIC(19, 2), " + audit;
+        };
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.iodsky.sweldox.payroll.contribution.sss;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the linear {@link SssContribution#findBracket} lookup with the compiled {@link SssBracketIndex}
+ * on a 61 bracket table shaped like the 2025 SSS schedule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SssBracketLookupBenchmark {
+
+    private static final int SALARY_COUNT = 1024;
+
+    private SssContribution contribution;
+    private SssBracketIndex index;
+    private BigDecimal[] salaries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        contribution = SssContribution.builder()
+                .employeeRate(new BigDecimal("0.0500"))
+                .salaryBrackets(sssTable())
+                .build();
+        index = SssBracketIndex.compile(contribution);
+
+        Random random = new Random(42);
+        salaries = new BigDecimal[SALARY_COUNT];
+        for (int i = 0; i < SALARY_COUNT; i++) {
+            salaries[i] = BigDecimal.valueOf(random.nextLong(1_000_000, 5_000_000), 2);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal streamLookup() {
+        return contribution.findBracket(nextSalary()).getMsc();
+    }
+
+    @Benchmark
+    public BigDecimal indexLookup() {
+        return index.findMsc(nextSalary());
+    }
+
+    private BigDecimal nextSalary() {
+        next = (next + 1) & (SALARY_COUNT - 1);
+        return salaries[next];
+    }
+
+    static List<SssContribution.SalaryBracket> sssTable() {
+        List<SssContribution.SalaryBracket> brackets = new ArrayList<>();
+        brackets.add(new SssContribution.SalaryBracket(BigDecimal.ZERO, new BigDecimal("5249.99"), new BigDecimal("5000")));
+
+        for (int msc = 5_500; msc < 35_000; msc += 500) {
+            brackets.add(new SssContribution.SalaryBracket(
+                    BigDecimal.valueOf(msc - 250), BigDecimal.valueOf(msc + 249.99), BigDecimal.valueOf(msc)));
+        }
+
+        brackets.add(new SssContribution.SalaryBracket(new BigDecimal("34750"), null, new BigDecimal("35000")));
+        return brackets;
+    }
+
+}
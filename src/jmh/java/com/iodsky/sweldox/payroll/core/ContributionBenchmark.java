@@ -0,0 +1,68 @@
+package com.iodsky.sweldox.payroll.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statutory deductions and withholding tax calculated on {@link BigDecimal} by {@link PayrollCalculator},
+ * one salary or taxable income at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContributionBenchmark {
+
+    private static final int SALARY_COUNT = 1024;
+
+    private PayrollCalculator payrollCalculator;
+    private PayrollConfiguration config;
+    private BigDecimal[] salaries;
+    private BigDecimal[] taxableIncomes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        payrollCalculator = PayrollFixtures.payrollCalculator();
+        config = PayrollFixtures.configuration();
+
+        Random random = new Random(42);
+        salaries = new BigDecimal[SALARY_COUNT];
+        taxableIncomes = new BigDecimal[SALARY_COUNT];
+        for (int i = 0; i < SALARY_COUNT; i++) {
+            salaries[i] = BigDecimal.valueOf(random.nextLong(0, 20_000_000), 2);
+            taxableIncomes[i] = BigDecimal.valueOf(random.nextLong(0, 20_000_000), 2);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sss() {
+        return payrollCalculator.calculateSssDeduction(salaries[advance()], config);
+    }
+
+    @Benchmark
+    public BigDecimal philhealth() {
+        return payrollCalculator.calculatePhilhealthDeduction(salaries[advance()], config.getPhilhealthContribution());
+    }
+
+    @Benchmark
+    public BigDecimal pagibig() {
+        return payrollCalculator.calculatePagibigDeduction(salaries[advance()], config.getPagibigContribution());
+    }
+
+    @Benchmark
+    public BigDecimal withholdingTax() {
+        return payrollCalculator.calculateWithholdingTax(taxableIncomes[advance()], config.getIncomeTaxTable());
+    }
+
+    private int advance() {
+        next = (next + 1) & (SALARY_COUNT - 1);
+        return next;
+    }
+
+}
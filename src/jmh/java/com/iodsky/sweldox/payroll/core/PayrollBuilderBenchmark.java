@@ -0,0 +1,88 @@
+package com.iodsky.sweldox.payroll.core;
+
+import com.iodsky.sweldox.attendance.Attendance;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.employee.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One employee's payroll built end to end, from the calculation to the entity with its deduction
+ * and benefit lines, on the centavo path and the {@code BigDecimal} path.
+ * <p>
+ * {@code buildPayroll} starts from the attendance summary the batch job prefetches, while
+ * {@code summarizeAndBuildPayroll} also sums the employee's attendance rows in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayrollBuilderBenchmark {
+
+    private static final int EMPLOYEE_COUNT = 1024;
+
+    @Param({"10", "20", "31"})
+    public int attendanceDays;
+
+    @Param({"true", "false"})
+    public boolean fixedPoint;
+
+    private PayrollCalculator payrollCalculator;
+    private PayrollBuilder payrollBuilder;
+    private PayrollConfiguration config;
+    private Long[] employeeIds;
+    private List<Attendance>[] attendance;
+    private AttendanceSummary[] summaries;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        payrollCalculator = PayrollFixtures.payrollCalculator();
+        config = PayrollFixtures.configuration();
+
+        Random random = new Random(42);
+        Map<Long, Employee> employees = new HashMap<>();
+        employeeIds = new Long[EMPLOYEE_COUNT];
+        attendance = new List[EMPLOYEE_COUNT];
+        summaries = new AttendanceSummary[EMPLOYEE_COUNT];
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            Employee employee = PayrollFixtures.employee(10_001L + i, random);
+            employees.put(employee.getId(), employee);
+
+            employeeIds[i] = employee.getId();
+            attendance[i] = PayrollFixtures.attendance(attendanceDays, random);
+            summaries[i] = PayrollFixtures.summarize(employee.getId(), attendance[i], payrollCalculator);
+        }
+
+        payrollBuilder = PayrollFixtures.payrollBuilder(employees, payrollCalculator, fixedPoint);
+    }
+
+    @Benchmark
+    public Payroll buildPayroll() {
+        int i = advance();
+        return payrollBuilder.buildPayroll(employeeIds[i], PayrollFixtures.PERIOD_START, PayrollFixtures.PERIOD_END,
+                PayrollFixtures.PAY_DATE, config, summaries[i]);
+    }
+
+    @Benchmark
+    public Payroll summarizeAndBuildPayroll() {
+        int i = advance();
+        AttendanceSummary summary = PayrollFixtures.summarize(employeeIds[i], attendance[i], payrollCalculator);
+        return payrollBuilder.buildPayroll(employeeIds[i], PayrollFixtures.PERIOD_START, PayrollFixtures.PERIOD_END,
+                PayrollFixtures.PAY_DATE, config, summary);
+    }
+
+    private int advance() {
+        next = (next + 1) & (EMPLOYEE_COUNT - 1);
+        return next;
+    }
+
+}
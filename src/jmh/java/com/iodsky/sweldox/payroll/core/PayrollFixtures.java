@@ -0,0 +1,191 @@
+package com.iodsky.sweldox.payroll.core;
+
+import com.iodsky.sweldox.attendance.Attendance;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.employee.EmployeeService;
+import com.iodsky.sweldox.payroll.benefit.Benefit;
+import com.iodsky.sweldox.payroll.benefit.BenefitType;
+import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContribution;
+import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContribution;
+import com.iodsky.sweldox.payroll.contribution.sss.SssBracketIndex;
+import com.iodsky.sweldox.payroll.contribution.sss.SssContribution;
+import com.iodsky.sweldox.payroll.deduction.DeductionType;
+import com.iodsky.sweldox.payroll.deduction.DeductionTypeCache;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxBracket;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Synthetic employees, attendance and statutory configuration for the payroll benchmarks.
+ * Collaborators that would hit the database are replaced by in-memory stubs, so only the
+ * calculation itself is measured.
+ */
+final class PayrollFixtures {
+
+    static final LocalDate PERIOD_START = LocalDate.of(2025, 1, 1);
+    static final LocalDate PERIOD_END = LocalDate.of(2025, 1, 31);
+    static final LocalDate PAY_DATE = LocalDate.of(2025, 2, 5);
+
+    private static final List<String> BENEFIT_TYPES = List.of("MEAL", "CLOTHING", "PHONE");
+    private static final List<String> DEDUCTION_TYPES = List.of("SSS", "PHIC", "HDMF", "TAX");
+
+    private PayrollFixtures() {
+    }
+
+    static PayrollConfiguration configuration() {
+        PhilhealthContribution philhealth = PhilhealthContribution.builder()
+                .premiumRate(new BigDecimal("0.0250"))
+                .minSalaryFloor(new BigDecimal("10000.00"))
+                .maxSalaryCap(new BigDecimal("100000.00"))
+                .fixedContribution(new BigDecimal("250.00"))
+                .build();
+
+        PagibigContribution pagibig = PagibigContribution.builder()
+                .employeeRate(new BigDecimal("0.0200"))
+                .lowIncomeEmployeeRate(new BigDecimal("0.0100"))
+                .lowIncomeThreshold(new BigDecimal("1500.00"))
+                .maxSalaryCap(new BigDecimal("10000.00"))
+                .build();
+
+        SssContribution sss = SssContribution.builder()
+                .employeeRate(new BigDecimal("0.0500"))
+                .salaryBrackets(sssTable())
+                .build();
+        SssBracketIndex sssBracketIndex = SssBracketIndex.compile(sss);
+
+        IncomeTaxTable incomeTaxTable = IncomeTaxTable.compile(List.of(
+                taxBracket("0", "20832", "0", "0.0000"),
+                taxBracket("20833", "33332", "0", "0.1500"),
+                taxBracket("33333", "66666", "1875.00", "0.2000"),
+                taxBracket("66667", "166666", "8541.80", "0.2500"),
+                taxBracket("166667", "666666", "33541.80", "0.3000"),
+                taxBracket("666667", null, "183541.80", "0.3500")));
+
+        return PayrollConfiguration.builder()
+                .philhealthContribution(philhealth)
+                .pagibigContribution(pagibig)
+                .sssContribution(sss)
+                .sssBracketIndex(sssBracketIndex)
+                .incomeTaxBrackets(incomeTaxTable.getBrackets())
+                .incomeTaxTable(incomeTaxTable)
+                .fixedPointRates(FixedPointRates.compile(philhealth, pagibig, sssBracketIndex, incomeTaxTable))
+                .build();
+    }
+
+    static Employee employee(long id, Random random) {
+        List<Benefit> benefits = new ArrayList<>();
+        for (String type : BENEFIT_TYPES) {
+            benefits.add(Benefit.builder()
+                    .benefitType(BenefitType.builder().id(type).build())
+                    .amount(money(random, 50_000, 200_001))
+                    .build());
+        }
+
+        return Employee.builder()
+                .id(id)
+                .basicSalary(money(random, 1_500_000, 15_000_001))
+                .hourlyRate(money(random, 9_000, 90_001))
+                .benefits(benefits)
+                .build();
+    }
+
+    /**
+     * One attendance row per day from the start of the period, with overtime past eight hours.
+     */
+    static List<Attendance> attendance(int days, Random random) {
+        List<Attendance> rows = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            BigDecimal totalHours = BigDecimal.valueOf(random.nextLong(600, 1_101), 2);
+            rows.add(Attendance.builder()
+                    .date(PERIOD_START.plusDays(day))
+                    .totalHours(totalHours)
+                    .overtime(totalHours.subtract(BigDecimal.valueOf(8)).max(BigDecimal.ZERO))
+                    .build());
+        }
+        return rows;
+    }
+
+    static AttendanceSummary summarize(Long employeeId, List<Attendance> rows, PayrollCalculator payrollCalculator) {
+        return new AttendanceSummary(employeeId,
+                payrollCalculator.calculateTotalHours(rows),
+                payrollCalculator.calculateOvertimeHours(rows),
+                (long) rows.size(),
+                rows.getFirst().getDate(),
+                rows.getLast().getDate());
+    }
+
+    static PayrollCalculator payrollCalculator() {
+        return new PayrollCalculator(null, payrollMetrics());
+    }
+
+    // Meters are recorded as in production, untagged by any job execution
+    static PayrollMetrics payrollMetrics() {
+        return new PayrollMetrics(new SimpleMeterRegistry(), 1);
+    }
+
+    static PayrollBuilder payrollBuilder(Map<Long, Employee> employees, PayrollCalculator payrollCalculator, boolean fixedPoint) {
+        PayrollBuilder builder = new PayrollBuilder(employeeService(employees), null, deductionTypeCache(),
+                payrollCalculator, new FixedPointPayrollCalculator(), payrollMetrics());
+        ReflectionTestUtils.setField(builder, "fixedPointEnabled", fixedPoint);
+        return builder;
+    }
+
+    private static EmployeeService employeeService(Map<Long, Employee> employees) {
+        return new EmployeeService(null, null, null, null, null) {
+            @Override
+            public Employee getEmployeeById(Long id) {
+                return employees.get(id);
+            }
+        };
+    }
+
+    private static DeductionTypeCache deductionTypeCache() {
+        Map<String, DeductionType> deductionTypes = DEDUCTION_TYPES.stream()
+                .map(code -> DeductionType.builder().code(code).build())
+                .collect(Collectors.toUnmodifiableMap(DeductionType::getCode, Function.identity()));
+
+        return new DeductionTypeCache(null) {
+            @Override
+            protected Map<String, DeductionType> load() {
+                return deductionTypes;
+            }
+        };
+    }
+
+    private static List<SssContribution.SalaryBracket> sssTable() {
+        List<SssContribution.SalaryBracket> brackets = new ArrayList<>();
+        brackets.add(new SssContribution.SalaryBracket(BigDecimal.ZERO, new BigDecimal("5249.99"), new BigDecimal("5000")));
+        for (int msc = 5_500; msc < 35_000; msc += 500) {
+            brackets.add(new SssContribution.SalaryBracket(
+                    BigDecimal.valueOf(msc - 250), new BigDecimal((msc + 249) + ".99"), BigDecimal.valueOf(msc)));
+        }
+        brackets.add(new SssContribution.SalaryBracket(new BigDecimal("34750"), null, new BigDecimal("35000")));
+        return brackets;
+    }
+
+    private static IncomeTaxBracket taxBracket(String min, String max, String baseTax, String marginalRate) {
+        return IncomeTaxBracket.builder()
+                .minIncome(new BigDecimal(min))
+                .maxIncome(max == null ? null : new BigDecimal(max))
+                .baseTax(new BigDecimal(baseTax))
+                .marginalRate(new BigDecimal(marginalRate))
+                .threshold(new BigDecimal(min))
+                .build();
+    }
+
+    private static BigDecimal money(Random random, long minCents, long maxCents) {
+        return BigDecimal.valueOf(random.nextLong(minCents, maxCents), 2);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.iodsky.sweldox.payroll.core;
+
+import com.iodsky.sweldox.employee.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a built payroll, with its four deductions and three benefits, to the {@link PayrollDto}
+ * returned by the listing and detail endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayrollMapperBenchmark {
+
+    private static final int PAYROLL_COUNT = 1024;
+
+    private PayrollMapper payrollMapper;
+    private Payroll[] payrolls;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        payrollMapper = new PayrollMapper();
+
+        PayrollCalculator payrollCalculator = PayrollFixtures.payrollCalculator();
+        PayrollConfiguration config = PayrollFixtures.configuration();
+
+        Random random = new Random(42);
+        Map<Long, Employee> employees = new HashMap<>();
+        for (int i = 0; i < PAYROLL_COUNT; i++) {
+            Employee employee = PayrollFixtures.employee(10_001L + i, random);
+            employees.put(employee.getId(), employee);
+        }
+
+        PayrollBuilder payrollBuilder = PayrollFixtures.payrollBuilder(employees, payrollCalculator, true);
+        payrolls = new Payroll[PAYROLL_COUNT];
+        int i = 0;
+        for (Employee employee : employees.values()) {
+            payrolls[i++] = payrollBuilder.buildPayroll(employee.getId(), PayrollFixtures.PERIOD_START, PayrollFixtures.PERIOD_END,
+                    PayrollFixtures.PAY_DATE, config,
+                    PayrollFixtures.summarize(employee.getId(), PayrollFixtures.attendance(22, random), payrollCalculator));
+        }
+    }
+
+    @Benchmark
+    public PayrollDto toDto() {
+        next = (next + 1) & (PAYROLL_COUNT - 1);
+        return payrollMapper.toDto(payrolls[next]);
+    }
+
+}
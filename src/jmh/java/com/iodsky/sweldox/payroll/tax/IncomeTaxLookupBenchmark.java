@@ -0,0 +1,73 @@
+package com.iodsky.sweldox.payroll.tax;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the first-match stream over the income tax brackets with the compiled {@link IncomeTaxTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncomeTaxLookupBenchmark {
+
+    private static final int INCOME_COUNT = 1024;
+
+    private List<IncomeTaxBracket> brackets;
+    private IncomeTaxTable table;
+    private BigDecimal[] incomes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        brackets = List.of(
+                bracket("0", "20832"),
+                bracket("20833", "33332"),
+                bracket("33333", "66666"),
+                bracket("66667", "166666"),
+                bracket("166667", "666666"),
+                bracket("666667", null));
+        table = IncomeTaxTable.compile(brackets);
+
+        Random random = new Random(42);
+        incomes = new BigDecimal[INCOME_COUNT];
+        for (int i = 0; i < INCOME_COUNT; i++) {
+            incomes[i] = BigDecimal.valueOf(random.nextLong(0, 20_000_000), 2);
+        }
+    }
+
+    @Benchmark
+    public IncomeTaxBracket streamLookup() {
+        BigDecimal income = nextIncome();
+        return brackets.stream()
+                .filter(b -> income.compareTo(b.getMinIncome()) >= 0
+                        && (b.getMaxIncome() == null || income.compareTo(b.getMaxIncome()) <= 0))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Benchmark
+    public IncomeTaxBracket tableLookup() {
+        return table.find(nextIncome());
+    }
+
+    private BigDecimal nextIncome() {
+        next = (next + 1) & (INCOME_COUNT - 1);
+        return incomes[next];
+    }
+
+    private static IncomeTaxBracket bracket(String min, String max) {
+        return IncomeTaxBracket.builder()
+                .minIncome(new BigDecimal(min))
+                .maxIncome(max == null ? null : new BigDecimal(max))
+                .build();
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.iodsky.sweldox.attendance;
+
+import java.time.LocalDate;
+
+/**
+ * Published in the transaction of an attendance change, once per date whose hours changed, so the
+ * payroll covering that date can be flagged for recomputation.
+ */
+public record AttendanceChangedEvent(Long employeeId, LocalDate date) {
+}
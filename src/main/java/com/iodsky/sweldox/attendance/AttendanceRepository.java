@@ -3,9 +3,11 @@ package com.iodsky.sweldox.attendance;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,4 +25,26 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
 
     List<Attendance> findByEmployee_IdAndDateBetween(Long employeeId, LocalDate startDate, LocalDate endDate);
 
+    @Query("""
+        SELECT new com.iodsky.sweldox.attendance.AttendanceSummary(
+            a.employee.id, SUM(a.totalHours), SUM(a.overtime), COUNT(a), MIN(a.date), MAX(a.date)
+        )
+        FROM Attendance a
+        WHERE a.employee.id = :employeeId
+        AND a.date BETWEEN :startDate AND :endDate
+        GROUP BY a.employee.id
+        """)
+    Optional<AttendanceSummary> summarizeByEmployeeIdAndDateBetween(Long employeeId, LocalDate startDate, LocalDate endDate);
+
+    @Query("""
+        SELECT new com.iodsky.sweldox.attendance.AttendanceSummary(
+            a.employee.id, SUM(a.totalHours), SUM(a.overtime), COUNT(a), MIN(a.date), MAX(a.date)
+        )
+        FROM Attendance a
+        WHERE a.employee.id IN :employeeIds
+        AND a.date BETWEEN :startDate AND :endDate
+        GROUP BY a.employee.id
+        """)
+    List<AttendanceSummary> summarizeByEmployeeIdsAndDateBetween(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate);
+
 }
\ No newline at end of file
@@ -7,11 +7,13 @@ import com.iodsky.sweldox.employee.Employee;
 import com.iodsky.sweldox.security.user.User;
 import com.iodsky.sweldox.security.user.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
@@ -19,7 +21,11 @@ import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,7 +37,9 @@ public class AttendanceService {
     private final EmployeeService employeeService;
     private final UserService userService;
     private final DateRangeResolver dateRangeResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public Attendance createAttendance(AttendanceDto attendanceDto) {
         User user = userService.getAuthenticatedUser();
 
@@ -82,9 +90,13 @@ public class AttendanceService {
                 .overtime(BigDecimal.ZERO)
                 .build();
 
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        publishAttendanceChanged(employeeId, attendanceDate);
+
+        return saved;
     }
 
+    @Transactional
     public Attendance updateAttendance(UUID id, AttendanceDto attendanceDto) {
         User user = userService.getAuthenticatedUser();
 
@@ -96,6 +108,7 @@ public class AttendanceService {
 
         long currentEmpId = user.getEmployee().getId();
         long employeeId = attendance.getEmployee().getId();
+        LocalDate originalDate = attendance.getDate();
 
         if (!isHr && employeeId != currentEmpId) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have the permissions to access this resource");
@@ -161,7 +174,15 @@ public class AttendanceService {
             attendance.setOvertime(overtime);
         }
 
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+
+        // A corrected date moves the hours out of one period and into another
+        publishAttendanceChanged(employeeId, originalDate);
+        if (!Objects.equals(originalDate, attendance.getDate())) {
+            publishAttendanceChanged(employeeId, attendance.getDate());
+        }
+
+        return saved;
     }
 
     public Page<Attendance> getAllAttendances(int page, int limit, LocalDate startDate, LocalDate endDate) {
@@ -201,4 +222,34 @@ public class AttendanceService {
         return attendanceRepository.findByEmployee_IdAndDateBetween(employeeId, startDate, endDate);
     }
 
+    public AttendanceSummary getEmployeeAttendanceSummary(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        return attendanceRepository.summarizeByEmployeeIdAndDateBetween(employeeId, startDate, endDate)
+                .orElseGet(() -> AttendanceSummary.empty(employeeId));
+    }
+
+    /**
+     * Summarize the attendances of several employees for a period in a single query.
+     * Every requested employee is present in the result, with an empty summary if they have no attendance.
+     */
+    public Map<Long, AttendanceSummary> getEmployeeAttendanceSummaries(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        Map<Long, AttendanceSummary> summariesByEmployee = new HashMap<>();
+        employeeIds.forEach(employeeId -> summariesByEmployee.put(employeeId, AttendanceSummary.empty(employeeId)));
+
+        if (employeeIds.isEmpty()) {
+            return summariesByEmployee;
+        }
+
+        attendanceRepository.summarizeByEmployeeIdsAndDateBetween(employeeIds, startDate, endDate)
+                .forEach(summary -> summariesByEmployee.put(summary.employeeId(), summary));
+
+        return summariesByEmployee;
+    }
+
+    /**
+     * Listeners run in the transaction of the change, so the attendance and the stale payroll commit together.
+     */
+    private void publishAttendanceChanged(Long employeeId, LocalDate date) {
+        eventPublisher.publishEvent(new AttendanceChangedEvent(employeeId, date));
+    }
+
 }
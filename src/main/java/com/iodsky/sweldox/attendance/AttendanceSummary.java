@@ -0,0 +1,23 @@
+package com.iodsky.sweldox.attendance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Hours worked by an employee over a period, aggregated by the database.
+ * The dates are null when the employee has no attendance in the period.
+ */
+public record AttendanceSummary(
+        Long employeeId,
+        BigDecimal totalHours,
+        BigDecimal overtimeHours,
+        Long daysWorked,
+        LocalDate firstDate,
+        LocalDate lastDate
+) {
+
+    public static AttendanceSummary empty(Long employeeId) {
+        return new AttendanceSummary(employeeId, BigDecimal.ZERO, BigDecimal.ZERO, 0L, null, null);
+    }
+
+}
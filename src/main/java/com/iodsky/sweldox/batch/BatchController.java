@@ -11,20 +11,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Collection;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/job")
@@ -33,8 +33,11 @@ import java.util.Collection;
 @Tag(name = "Batch Jobs", description = "Batch job management endpoints")
 public class BatchController {
 
-    private final JobLauncher jobLauncher;
+    private final JobLauncher payrollJobLauncher;
+    private final JobLauncher importJobLauncher;
     private final JobExplorer jobExplorer;
+    private final JobProgressPublisher jobProgressPublisher;
+    private final ImportUploadService importUploadService;
     private final Job employeeImportJob;
     private final Job userImportJob;
     private final Job generatePayrollJob;
@@ -42,18 +45,35 @@ public class BatchController {
     @Value("${batch.upload.directory}")
     private String uploadDirectory;
 
+    @Value("${batch.import.max-concurrency}")
+    private int maxImportConcurrency;
+
+    @Value("${batch.payroll.max-partitions}")
+    private int maxPayrollPartitions;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
     @PreAuthorize("hasAnyRole('HR', 'IT')")
     @PostMapping(value = "/import-employees", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
             summary = "Import employees from CSV file",
-            description = "Upload a CSV file to import employees via batch job. Returns job execution ID for tracking."
+            description = "Upload a CSV or gzip compressed CSV (.csv.gz) file to import employees via batch job. In the UPSERT mode, employees are " +
+                    "matched on their SSS number and existing ones are updated instead of skipped. Set concurrency " +
+                    "above 1 to process that many chunks in parallel, up to the configured maximum; each chunk holds a database " +
+                    "connection. The job runs asynchronously; returns 202 with the job execution ID for tracking, or 503 when " +
+                    "the import queue is full."
     )
     public ResponseEntity<ApiResponse<JobLaunchResponse>> importEmployees(
-            @RequestPart("file") MultipartFile file) {
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(defaultValue = "INSERT") ImportMode mode,
+            @RequestParam(required = false) Long concurrency) {
+
+        validateImportConcurrency(concurrency);
 
         try {
-            String fileName = uploadCsvFile(file);
-            JobExecution jobExecution = launchJob(employeeImportJob, fileName);
+            String fileName = importUploadService.store(file);
+            JobExecution jobExecution = launchJob(employeeImportJob, fileName, mode, concurrency, null);
 
             JobLaunchResponse response = JobLaunchResponse.builder()
                     .jobExecutionId(jobExecution.getId())
@@ -61,8 +81,10 @@ public class BatchController {
                     .message("Employee import job launched successfully")
                     .build();
 
-            return ResponseFactory.ok("Job launched successfully", response);
+            return ResponseFactory.accepted("Job launched successfully", response);
 
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to launch employee import job", e);
             throw new RuntimeException("Failed to launch employee import job: " + e.getMessage(), e);
@@ -73,14 +95,84 @@ public class BatchController {
     @PostMapping(value = "/import-users", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
             summary = "Import users from CSV file",
-            description = "Upload a CSV file to import users via batch job. Returns job execution ID for tracking. Restricted to IT role only."
+            description = "Upload a CSV or gzip compressed CSV (.csv.gz) file to import users via batch job. In the UPSERT mode, users are matched " +
+                    "on their email and existing ones are updated instead of skipped. The job runs asynchronously; " +
+                    "returns 202 with the job execution ID for tracking, or 503 when the import queue is full. Restricted to IT role only."
     )
     public ResponseEntity<ApiResponse<JobLaunchResponse>> importUsers(
-            @RequestPart("file") MultipartFile file) {
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(defaultValue = "INSERT") ImportMode mode) {
+
+        try {
+            String fileName = importUploadService.store(file);
+            JobExecution jobExecution = launchJob(userImportJob, fileName, mode, null, null);
+
+            JobLaunchResponse response = JobLaunchResponse.builder()
+                    .jobExecutionId(jobExecution.getId())
+                    .fileName(fileName)
+                    .message("User import job launched successfully")
+                    .build();
+
+            return ResponseFactory.accepted("Job launched successfully", response);
+
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to launch user import job", e);
+            throw new RuntimeException("Failed to launch user import job: " + e.getMessage(), e);
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('HR', 'IT')")
+    @PostMapping("/import-employees/uploads/{uploadId}")
+    @Operation(
+            summary = "Import employees from a resumable upload",
+            description = "Complete a resumable upload and import its employees via batch job, with the same mode and " +
+                    "concurrency options as the multipart import. Returns 202 with the job execution ID for tracking, " +
+                    "or 503 when the import queue is full, in which case the upload is kept to be completed again later."
+    )
+    public ResponseEntity<ApiResponse<JobLaunchResponse>> importEmployeesFromUpload(
+            @PathVariable UUID uploadId,
+            @RequestParam(defaultValue = "INSERT") ImportMode mode,
+            @RequestParam(required = false) Long concurrency) {
+
+        validateImportConcurrency(concurrency);
+
+        try {
+            String fileName = importUploadService.completeUpload(uploadId);
+            JobExecution jobExecution = launchJob(employeeImportJob, fileName, mode, concurrency, uploadId);
+
+            JobLaunchResponse response = JobLaunchResponse.builder()
+                    .jobExecutionId(jobExecution.getId())
+                    .fileName(fileName)
+                    .message("Employee import job launched successfully")
+                    .build();
+
+            return ResponseFactory.accepted("Job launched successfully", response);
+
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to launch employee import job", e);
+            throw new RuntimeException("Failed to launch employee import job: " + e.getMessage(), e);
+        }
+    }
+
+    @PreAuthorize("hasRole('IT')")
+    @PostMapping("/import-users/uploads/{uploadId}")
+    @Operation(
+            summary = "Import users from a resumable upload",
+            description = "Complete a resumable upload and import its users via batch job, with the same mode option " +
+                    "as the multipart import. Returns 202 with the job execution ID for tracking, or 503 when the " +
+                    "import queue is full, in which case the upload is kept to be completed again later. Restricted to IT role only."
+    )
+    public ResponseEntity<ApiResponse<JobLaunchResponse>> importUsersFromUpload(
+            @PathVariable UUID uploadId,
+            @RequestParam(defaultValue = "INSERT") ImportMode mode) {
 
         try {
-            String fileName = uploadCsvFile(file);
-            JobExecution jobExecution = launchJob(userImportJob, fileName);
+            String fileName = importUploadService.completeUpload(uploadId);
+            JobExecution jobExecution = launchJob(userImportJob, fileName, mode, null, uploadId);
 
             JobLaunchResponse response = JobLaunchResponse.builder()
                     .jobExecutionId(jobExecution.getId())
@@ -88,8 +180,10 @@ public class BatchController {
                     .message("User import job launched successfully")
                     .build();
 
-            return ResponseFactory.ok("Job launched successfully", response);
+            return ResponseFactory.accepted("Job launched successfully", response);
 
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to launch user import job", e);
             throw new RuntimeException("Failed to launch user import job: " + e.getMessage(), e);
@@ -100,30 +194,45 @@ public class BatchController {
     @PostMapping("/generate-payroll")
     @Operation(
             summary = "Generate payroll for all active employees",
-            description = "Launch a batch job to generate payroll for all active employees for the specified period. Returns job execution ID for tracking."
+            description = "Launch a batch job to generate payroll for all active employees for the specified period. " +
+                    "Set partitions above 1 to split employees into ID ranges processed in parallel, up to the configured " +
+                    "maximum, with at most concurrency partitions running at once. The job runs asynchronously; returns 202 with the job " +
+                    "execution ID for tracking, or 503 when the payroll queue is full."
     )
     public ResponseEntity<ApiResponse<JobLaunchResponse>> generatePayroll(
             @RequestParam String periodStartDate,
             @RequestParam String periodEndDate,
-            @RequestParam String payDate) {
+            @RequestParam String payDate,
+            @RequestParam(required = false) Long partitions,
+            @RequestParam(required = false) Long concurrency) {
+
+        validatePayrollPartitions(partitions, concurrency);
 
         try {
-            JobParameters jobParameters = new JobParametersBuilder()
+            JobParametersBuilder parametersBuilder = new JobParametersBuilder()
                     .addString("periodStartDate", periodStartDate)
                     .addString("periodEndDate", periodEndDate)
                     .addString("payDate", payDate)
-                    .addLong("timestamp", System.currentTimeMillis())
-                    .toJobParameters();
+                    .addLong("timestamp", System.currentTimeMillis());
+
+            if (partitions != null) {
+                parametersBuilder.addLong("partitions", partitions);
+                parametersBuilder.addLong("concurrency", concurrency != null ? concurrency : partitions);
+            }
+
+            JobParameters jobParameters = parametersBuilder.toJobParameters();
 
-            JobExecution jobExecution = jobLauncher.run(generatePayrollJob, jobParameters);
+            JobExecution jobExecution = launch(payrollJobLauncher, generatePayrollJob, jobParameters);
 
             JobLaunchResponse response = JobLaunchResponse.builder()
                     .jobExecutionId(jobExecution.getId())
                     .message("Payroll generation job launched successfully")
                     .build();
 
-            return ResponseFactory.ok("Job launched successfully", response);
+            return ResponseFactory.accepted("Job launched successfully", response);
 
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to launch payroll generation job", e);
             throw new RuntimeException("Failed to launch payroll generation job: " + e.getMessage(), e);
@@ -141,17 +250,7 @@ public class BatchController {
 
         JobExecution jobExecution = jobExplorer.getJobExecution(jobExecutionId);
 
-        // Get step execution metrics
-        Collection<StepExecution> stepExecutions = jobExecution.getStepExecutions();
-        long readCount = 0;
-        long writeCount = 0;
-        long skipCount = 0;
-
-        for (StepExecution stepExecution : stepExecutions) {
-            readCount += stepExecution.getReadCount();
-            writeCount += stepExecution.getWriteCount();
-            skipCount += stepExecution.getSkipCount();
-        }
+        StepCounts counts = StepCounts.of(jobExecution);
 
         String fileName = jobExecution.getJobParameters().getString("fileName");
 
@@ -161,67 +260,116 @@ public class BatchController {
                 .fileName(fileName)
                 .startTime(jobExecution.getStartTime())
                 .endTime(jobExecution.getEndTime())
-                .readCount(readCount)
-                .writeCount(writeCount)
-                .skipCount(skipCount)
+                .readCount(counts.readCount())
+                .writeCount(counts.writeCount())
+                .skipCount(counts.skipCount())
                 .exitDescription(jobExecution.getExitStatus().getExitDescription())
                 .build();
 
         return ResponseFactory.ok("Job execution details retrieved successfully", details);
     }
 
+    @PreAuthorize("hasAnyRole('HR', 'IT', 'PAYROLL')")
+    @GetMapping(value = "/{jobExecutionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream job execution progress",
+            description = "Server-Sent Events stream of a batch job execution. Sends 'progress' events with the read, " +
+                    "write and skip counts, throughput and estimated seconds remaining while the job runs, then a " +
+                    "'complete' event with the final status before closing. Finished executions get the 'complete' event only."
+    )
+    public SseEmitter streamJobExecutionEvents(@PathVariable Long jobExecutionId) {
+        JobExecution jobExecution = jobExplorer.getJobExecution(jobExecutionId);
+        if (jobExecution == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job execution not found: " + jobExecutionId);
+        }
+
+        return jobProgressPublisher.subscribe(jobExecution);
+    }
+
     /**
-     * Upload a CSV file to the upload directory with a timestamped filename.
-     *
-     * @param file the multipart file to upload
-     * @return the generated filename
-     * @throws Exception if file upload fails
+     * Reject partitions or a concurrency below 1, or above the configured maximum or the connection pool size,
+     * since every running partition holds a connection and loads its own set of existing payrolls. The
+     * concurrency only applies to partitions, so it is rejected without them.
      */
-    private String uploadCsvFile(MultipartFile file) throws Exception {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("File cannot be empty");
+    private void validatePayrollPartitions(Long partitions, Long concurrency) {
+        if (concurrency != null && partitions == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Concurrency requires partitions");
         }
 
-        if (!file.getOriginalFilename().endsWith(".csv")) {
-            throw new IllegalArgumentException("Only CSV files are supported");
+        int maxPartitions = Math.min(maxPayrollPartitions, connectionPoolSize);
+        if (partitions != null && (partitions < 1 || partitions > maxPartitions)
+                || concurrency != null && (concurrency < 1 || concurrency > maxPartitions)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Partitions and concurrency must be between 1 and " + maxPartitions);
         }
+    }
 
-        // Create upload directory if it doesn't exist
-        File uploadDir = new File(uploadDirectory);
-        if (!uploadDir.exists()) {
-            if (!uploadDir.mkdirs()) {
-                throw new RuntimeException("Failed to create upload directory: " + uploadDirectory);
-            }
+    /**
+     * Reject an import concurrency below 1, or above the configured maximum or the connection pool size,
+     * since every chunk thread holds a connection for its whole transaction.
+     */
+    private void validateImportConcurrency(Long concurrency) {
+        int maxConcurrency = Math.min(maxImportConcurrency, connectionPoolSize);
+        if (concurrency != null && (concurrency < 1 || concurrency > maxConcurrency)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Concurrency must be between 1 and " + maxConcurrency);
         }
-
-        // Generate unique filename with timestamp
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String originalFilename = file.getOriginalFilename();
-        String fileName = timestamp + "_" + originalFilename;
-
-        // Save file to upload directory
-        Path filePath = Paths.get(uploadDirectory, fileName);
-        Files.copy(file.getInputStream(), filePath);
-
-        log.info("File uploaded successfully: {}", fileName);
-
-        return fileName;
     }
 
     /**
-     * Launch a batch job with the given filename parameter.
+     * Launch an import job with the given filename, mode and, when set, the number of chunks processed
+     * in parallel. If the job is rejected, a multipart upload is removed and a resumable one is moved
+     * back under its ID, so the client can complete it again without sending the file anew.
      *
      * @param job the batch job to launch
      * @param fileName the filename parameter for the job
+     * @param mode the import mode parameter for the job
+     * @param concurrency the concurrency parameter for the job, or null to process serially
+     * @param uploadId the resumable upload the file was completed from, or null for a multipart upload
      * @return the job execution
      * @throws Exception if job launch fails
      */
-    private JobExecution launchJob(Job job, String fileName) throws Exception {
-        JobParameters jobParameters = new JobParametersBuilder()
+    private JobExecution launchJob(Job job, String fileName, ImportMode mode, Long concurrency,
+                                   UUID uploadId) throws Exception {
+        JobParametersBuilder parametersBuilder = new JobParametersBuilder()
                 .addString("fileName", fileName)
-                .addLong("timestamp", System.currentTimeMillis())
-                .toJobParameters();
+                .addString(ImportMode.JOB_PARAMETER, mode.name())
+                .addLong("timestamp", System.currentTimeMillis());
+
+        if (concurrency != null) {
+            parametersBuilder.addLong("concurrency", concurrency);
+        }
+
+        JobParameters jobParameters = parametersBuilder.toJobParameters();
+
+        try {
+            return launch(importJobLauncher, job, jobParameters);
+        } catch (ResponseStatusException e) {
+            if (uploadId != null) {
+                importUploadService.restoreUpload(uploadId, fileName);
+            } else {
+                Files.deleteIfExists(Paths.get(uploadDirectory, fileName));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Submit a job to an asynchronous launcher. A full queue does not throw: the launcher marks the
+     * execution as failed with the rejection as exit description, which is reported as 503.
+     *
+     * @return the job execution, usually still starting
+     * @throws Exception if job launch fails
+     */
+    private JobExecution launch(JobLauncher jobLauncher, Job job, JobParameters jobParameters) throws Exception {
+        JobExecution jobExecution = jobLauncher.run(job, jobParameters);
+
+        if (jobExecution.getStatus() == BatchStatus.FAILED
+                && jobExecution.getExitStatus().getExitDescription().contains(TaskRejectedException.class.getName())) {
+            log.warn("Rejected {} execution {}, the job queue is full", job.getName(), jobExecution.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many " + job.getName() + " runs are queued, try again later");
+        }
 
-        return jobLauncher.run(job, jobParameters);
+        return jobExecution;
     }
 }
@@ -0,0 +1,63 @@
+package com.iodsky.sweldox.batch;
+
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+/**
+ * Asynchronous job launchers, one per job type. Each runs its jobs on a fixed number of threads
+ * with a bounded queue, so launch requests return immediately and a full queue rejects new runs
+ * instead of piling them up.
+ * <p>
+ * The launching user's security context is carried over to the job thread for auditing.
+ */
+@Configuration
+public class BatchLauncherConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor payrollJobExecutor(
+            @Value("${batch.launcher.payroll.concurrency}") int concurrency,
+            @Value("${batch.launcher.payroll.queue-capacity}") int queueCapacity) {
+        return jobExecutor("payroll-job-", concurrency, queueCapacity);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor importJobExecutor(
+            @Value("${batch.launcher.import.concurrency}") int concurrency,
+            @Value("${batch.launcher.import.queue-capacity}") int queueCapacity) {
+        return jobExecutor("import-job-", concurrency, queueCapacity);
+    }
+
+    @Bean
+    public JobLauncher payrollJobLauncher(JobRepository jobRepository, ThreadPoolTaskExecutor payrollJobExecutor) throws Exception {
+        return jobLauncher(jobRepository, payrollJobExecutor);
+    }
+
+    @Bean
+    public JobLauncher importJobLauncher(JobRepository jobRepository, ThreadPoolTaskExecutor importJobExecutor) throws Exception {
+        return jobLauncher(jobRepository, importJobExecutor);
+    }
+
+    private static ThreadPoolTaskExecutor jobExecutor(String threadNamePrefix, int concurrency, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    private static JobLauncher jobLauncher(JobRepository jobRepository, ThreadPoolTaskExecutor executor) throws Exception {
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(new DelegatingSecurityContextAsyncTaskExecutor(executor));
+        jobLauncher.afterPropertiesSet();
+        return jobLauncher;
+    }
+
+}
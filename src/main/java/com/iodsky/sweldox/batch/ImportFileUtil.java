@@ -0,0 +1,51 @@
+package com.iodsky.sweldox.batch;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+@UtilityClass
+public class ImportFileUtil {
+
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String GZIP_CSV_EXTENSION = ".csv.gz";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Whether a file name is a plain file name with an extension the imports accept.
+     */
+    public static boolean isSupported(String fileName) {
+        if (fileName == null || fileName.isBlank() || !fileName.equals(Paths.get(fileName).getFileName().toString())) {
+            return false;
+        }
+
+        String lowerCase = fileName.toLowerCase();
+        return lowerCase.endsWith(CSV_EXTENSION) || lowerCase.endsWith(GZIP_CSV_EXTENSION);
+    }
+
+    /**
+     * Resource of an uploaded file for the import readers. Gzip compressed files are decompressed
+     * as they are read, so they stay compressed on disk.
+     */
+    public static Resource resource(String uploadDirectory, String fileName) {
+        Path path = Paths.get(uploadDirectory, fileName);
+        if (!fileName.toLowerCase().endsWith(GZIP_CSV_EXTENSION)) {
+            return new FileSystemResource(path);
+        }
+
+        return new FileSystemResource(path) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new GZIPInputStream(super.getInputStream(), GZIP_BUFFER_SIZE);
+            }
+        };
+    }
+
+}
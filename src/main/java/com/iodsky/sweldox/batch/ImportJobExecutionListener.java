@@ -1,5 +1,8 @@
 package com.iodsky.sweldox.batch;
 
+import com.iodsky.sweldox.batch.employee.EmployeeImportJobConfig;
+import com.iodsky.sweldox.batch.employee.SupervisorResolutionTasklet;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
@@ -12,17 +15,30 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 /**
- * Job completion listener that cleans up uploaded CSV files after processing.
+ * Job completion listener that cleans up uploaded CSV files after processing. For employee imports,
+ * the supervisor references still staged by a run that stopped early are applied and removed.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class ImportJobExecutionListener implements JobExecutionListener {
 
+    private final SupervisorResolutionTasklet supervisorResolutionTasklet;
+
     @Value("${batch.upload.directory}")
     private String uploadDirectory;
 
     @Override
     public void afterJob(JobExecution jobExecution) {
+        if (EmployeeImportJobConfig.JOB_NAME.equals(jobExecution.getJobInstance().getJobName())) {
+            try {
+                supervisorResolutionTasklet.resolve(jobExecution.getJobId());
+            } catch (Exception e) {
+                log.error("Failed to resolve staged supervisors of job {}. Error: {}",
+                        jobExecution.getJobId(), e.getMessage(), e);
+            }
+        }
+
         String fileName = jobExecution.getJobParameters().getString("fileName");
 
         if (!fileName.isEmpty()) {
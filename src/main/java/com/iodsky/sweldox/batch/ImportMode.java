@@ -0,0 +1,27 @@
+package com.iodsky.sweldox.batch;
+
+/**
+ * How an import job writes its rows, passed as the {@value #JOB_PARAMETER} job parameter.
+ */
+public enum ImportMode {
+
+    /**
+     * Insert every row as a new record; rows clashing with existing records are skipped.
+     */
+    INSERT,
+
+    /**
+     * Insert new records and update the ones already present, matched on their natural key.
+     */
+    UPSERT;
+
+    public static final String JOB_PARAMETER = "mode";
+
+    /**
+     * Mode of a job parameter value, {@link #INSERT} when absent.
+     */
+    public static ImportMode of(String value) {
+        return value == null ? INSERT : valueOf(value);
+    }
+
+}
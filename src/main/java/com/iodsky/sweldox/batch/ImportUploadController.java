@@ -0,0 +1,70 @@
+package com.iodsky.sweldox.batch;
+
+import com.iodsky.sweldox.batch.response.ImportUploadResponse;
+import com.iodsky.sweldox.common.response.ApiResponse;
+import com.iodsky.sweldox.common.response.DeleteResponse;
+import com.iodsky.sweldox.common.response.ResponseFactory;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/job/uploads")
+@RequiredArgsConstructor
+@Tag(name = "Batch Jobs", description = "Batch job management endpoints")
+public class ImportUploadController {
+
+    private final ImportUploadService importUploadService;
+
+    @PreAuthorize("hasAnyRole('HR', 'IT')")
+    @PostMapping
+    @Operation(
+            summary = "Start a resumable import file upload",
+            description = "Start uploading a CSV or gzip compressed CSV (.csv.gz) file in chunks, for files over the " +
+                    "multipart size limit. Returns the upload ID to send the chunks to, and the offset to send the next one from."
+    )
+    public ResponseEntity<ApiResponse<ImportUploadResponse>> startUpload(@RequestParam String fileName) throws IOException {
+        return ResponseFactory.created("Upload started successfully", importUploadService.startUpload(fileName));
+    }
+
+    @PreAuthorize("hasAnyRole('HR', 'IT')")
+    @GetMapping("/{uploadId}")
+    @Operation(
+            summary = "Get a resumable upload",
+            description = "Retrieve the number of bytes received so far, which is the offset to resume the upload from."
+    )
+    public ResponseEntity<ApiResponse<ImportUploadResponse>> getUpload(@PathVariable UUID uploadId) throws IOException {
+        return ResponseFactory.ok("Upload retrieved successfully", importUploadService.getUpload(uploadId));
+    }
+
+    @PreAuthorize("hasAnyRole('HR', 'IT')")
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Send a chunk of a resumable upload",
+            description = "Append the request body to the upload. The offset must equal the bytes received so far, " +
+                    "otherwise returns 409 with the offset to resume from. Returns 413 past the upload size limit."
+    )
+    public ResponseEntity<ApiResponse<ImportUploadResponse>> appendChunk(
+            @PathVariable UUID uploadId,
+            @RequestParam long offset,
+            InputStream chunk) throws IOException {
+        return ResponseFactory.ok("Chunk received successfully", importUploadService.appendChunk(uploadId, offset, chunk));
+    }
+
+    @PreAuthorize("hasAnyRole('HR', 'IT')")
+    @DeleteMapping("/{uploadId}")
+    @Operation(summary = "Cancel a resumable upload", description = "Remove an unfinished upload and the bytes received.")
+    public ResponseEntity<ApiResponse<DeleteResponse>> cancelUpload(@PathVariable UUID uploadId) throws IOException {
+        importUploadService.cancelUpload(uploadId);
+        return ResponseFactory.ok("Upload cancelled successfully", new DeleteResponse("ImportUpload", uploadId.toString()));
+    }
+
+}
@@ -0,0 +1,263 @@
+package com.iodsky.sweldox.batch;
+
+import com.iodsky.sweldox.batch.response.ImportUploadResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Stores the files of the import jobs in the upload directory, either from a multipart request or
+ * through a resumable upload sent in chunks of any size, which is not bound by the multipart limit.
+ * <p>
+ * A resumable upload is a directory under {@code chunked/} holding the partial file. Each chunk is appended
+ * at the offset the client states, which must be the number of bytes received so far; after a failed chunk the
+ * client reads the offset back and resumes from there. Uploads left unfinished past the expiry are removed
+ * when a new one starts.
+ */
+@Service
+@Slf4j
+public class ImportUploadService {
+
+    private static final String CHUNKED_DIRECTORY = "chunked";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String TIMESTAMP_PATTERN = "yyyyMMdd_HHmmss";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern(TIMESTAMP_PATTERN);
+    private static final int SUFFIX_LENGTH = 8;
+    // The timestamp, the random suffix and their underscores before the original filename
+    private static final int STORED_PREFIX_LENGTH = TIMESTAMP_PATTERN.length() + SUFFIX_LENGTH + 2;
+
+    @Value("${batch.upload.directory}")
+    private String uploadDirectory;
+
+    @Value("${batch.upload.chunked.max-file-size}")
+    private DataSize maxFileSize;
+
+    @Value("${batch.upload.chunked.expiry}")
+    private Duration expiry;
+
+    /**
+     * Move a multipart file to the upload directory with a unique timestamped filename.
+     *
+     * @return the generated filename
+     */
+    public String store(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File cannot be empty");
+        }
+
+        Path filePath = uploadPath(file.getOriginalFilename());
+
+        // transferTo replaces an existing file, the name is unique but a collision must not go unnoticed
+        if (Files.exists(filePath)) {
+            throw new FileAlreadyExistsException(filePath.toString());
+        }
+
+        // Moves the multipart temporary file where the container allows it, rather than copying it
+        file.transferTo(filePath.toAbsolutePath().toFile());
+
+        log.info("File uploaded successfully: {}", filePath.getFileName());
+        return filePath.getFileName().toString();
+    }
+
+    public ImportUploadResponse startUpload(String fileName) throws IOException {
+        validateFileName(fileName);
+        removeExpiredUploads();
+
+        UUID uploadId = UUID.randomUUID();
+        Path directory = Files.createDirectories(chunkedDirectory().resolve(uploadId.toString()));
+        Files.createFile(directory.resolve(fileName));
+
+        log.info("Started upload {} of {}", uploadId, fileName);
+        return toResponse(uploadId, directory.resolve(fileName));
+    }
+
+    public ImportUploadResponse getUpload(UUID uploadId) throws IOException {
+        return toResponse(uploadId, partialFile(uploadId));
+    }
+
+    /**
+     * Append a chunk to an upload. Bytes received before a failure are kept, so the client resumes
+     * from the offset it reads back.
+     *
+     * @param offset the number of bytes the client has sent before this chunk
+     */
+    public ImportUploadResponse appendChunk(UUID uploadId, long offset, InputStream chunk) throws IOException {
+        Path file = partialFile(uploadId);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+             FileLock lock = tryLock(channel, uploadId)) {
+            long size = channel.size();
+            if (offset != size) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Upload " + uploadId + " has " + size + " bytes, resume from that offset");
+            }
+
+            channel.position(size);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = chunk.read(buffer)) != -1) {
+                if (channel.position() + read > maxFileSize.toBytes()) {
+                    channel.truncate(size);
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Uploads are limited to " + maxFileSize.toMegabytes() + "MB");
+                }
+                channel.write(ByteBuffer.wrap(buffer, 0, read));
+            }
+        }
+
+        return toResponse(uploadId, file);
+    }
+
+    /**
+     * Move a finished upload to the upload directory with a unique timestamped filename.
+     *
+     * @return the generated filename
+     */
+    public String completeUpload(UUID uploadId) throws IOException {
+        Path file = partialFile(uploadId);
+        if (Files.size(file) == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Upload " + uploadId + " is empty");
+        }
+
+        Path filePath = uploadPath(file.getFileName().toString());
+        // Without replace semantics, so a name collision fails instead of overwriting another upload
+        Files.move(file, filePath);
+        FileSystemUtils.deleteRecursively(file.getParent());
+
+        log.info("Completed upload {} as {}", uploadId, filePath.getFileName());
+        return filePath.getFileName().toString();
+    }
+
+    /**
+     * Move a completed upload back under its ID, for the client to complete it again once the import
+     * it was completed for has been rejected.
+     *
+     * @param fileName the filename {@link #completeUpload(UUID)} generated
+     */
+    public void restoreUpload(UUID uploadId, String fileName) throws IOException {
+        Path directory = Files.createDirectories(chunkedDirectory().resolve(uploadId.toString()));
+        Files.move(Paths.get(uploadDirectory, fileName), directory.resolve(fileName.substring(STORED_PREFIX_LENGTH)));
+
+        log.info("Restored upload {} from {}", uploadId, fileName);
+    }
+
+    public void cancelUpload(UUID uploadId) throws IOException {
+        Path file = partialFile(uploadId);
+        FileSystemUtils.deleteRecursively(file.getParent());
+        log.info("Cancelled upload {}", uploadId);
+    }
+
+    private Path uploadPath(String fileName) throws IOException {
+        validateFileName(fileName);
+
+        Path directory = Files.createDirectories(Paths.get(uploadDirectory));
+        // Uploads of the same file within a second get different names
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        String suffix = UUID.randomUUID().toString().substring(0, SUFFIX_LENGTH);
+        return directory.resolve(timestamp + "_" + suffix + "_" + fileName);
+    }
+
+    private Path chunkedDirectory() {
+        return Paths.get(uploadDirectory, CHUNKED_DIRECTORY);
+    }
+
+    private Path partialFile(UUID uploadId) throws IOException {
+        Path directory = chunkedDirectory().resolve(uploadId.toString());
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    return file;
+                }
+            }
+        }
+
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload " + uploadId + " not found");
+    }
+
+    private void removeExpiredUploads() throws IOException {
+        Path chunked = chunkedDirectory();
+        if (!Files.isDirectory(chunked)) {
+            return;
+        }
+
+        // The partial file is modified by every chunk, its directory only when the upload starts
+        Instant cutoff = Instant.now().minus(expiry);
+        try (Stream<Path> uploads = Files.list(chunked)) {
+            for (Path upload : uploads.toList()) {
+                Instant lastModified;
+                try (Stream<Path> files = Files.list(upload)) {
+                    lastModified = files.map(ImportUploadService::lastModified)
+                            .max(Instant::compareTo)
+                            .orElse(lastModified(upload));
+                }
+
+                if (lastModified.isBefore(cutoff)) {
+                    FileSystemUtils.deleteRecursively(upload);
+                    log.info("Removed expired upload {}", upload.getFileName());
+                }
+            }
+        }
+    }
+
+    private static Instant lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel, UUID uploadId) throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return lock;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Held by another request of this application
+        }
+
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload " + uploadId + " is receiving another chunk");
+    }
+
+    private static void validateFileName(String fileName) {
+        if (!ImportFileUtil.isSupported(fileName)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only CSV files are supported, plain or gzip compressed");
+        }
+    }
+
+    private static ImportUploadResponse toResponse(UUID uploadId, Path file) throws IOException {
+        return ImportUploadResponse.builder()
+                .uploadId(uploadId)
+                .fileName(file.getFileName().toString())
+                .offset(Files.size(file))
+                .build();
+    }
+
+}
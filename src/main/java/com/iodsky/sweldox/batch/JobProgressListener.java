@@ -0,0 +1,87 @@
+package com.iodsky.sweldox.batch;
+
+import com.iodsky.sweldox.batch.payroll.GeneratePayrollJobConfig;
+import com.iodsky.sweldox.employee.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Feeds {@link JobProgressPublisher} from the job and its chunk steps. Before the job starts, the
+ * expected item count is stored in the job execution context: the data lines of the uploaded file
+ * for imports, the active employees for payroll generation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobProgressListener implements JobExecutionListener, StepExecutionListener, ChunkListener {
+
+    private final JobProgressPublisher jobProgressPublisher;
+    private final EmployeeService employeeService;
+
+    @Value("${batch.upload.directory}")
+    private String uploadDirectory;
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        Long totalItems = countItems(jobExecution);
+        if (totalItems != null) {
+            jobExecution.getExecutionContext().putLong(JobProgressPublisher.TOTAL_ITEMS_KEY, totalItems);
+        }
+        jobProgressPublisher.jobStarted(jobExecution);
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        jobProgressPublisher.chunkCompleted(context.getStepContext().getStepExecution().getJobExecution());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        jobProgressPublisher.stepCompleted(stepExecution.getJobExecution());
+        return null;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        jobProgressPublisher.jobFinished(jobExecution);
+    }
+
+    private Long countItems(JobExecution jobExecution) {
+        String fileName = jobExecution.getJobParameters().getString("fileName");
+        if (fileName != null) {
+            // Through the reader's resource, so gzip compressed files are counted decompressed
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    ImportFileUtil.resource(uploadDirectory, fileName).getInputStream(), StandardCharsets.UTF_8));
+                 Stream<String> lines = reader.lines()) {
+                // The header line is skipped by the readers
+                return Math.max(lines.count() - 1, 0);
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Could not count the lines of {}, progress will have no estimate: {}", fileName, e.getMessage());
+                return null;
+            }
+        }
+
+        if (GeneratePayrollJobConfig.JOB_NAME.equals(jobExecution.getJobInstance().getJobName())) {
+            return employeeService.countActiveEmployees();
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.iodsky.sweldox.batch;
+
+import com.iodsky.sweldox.batch.response.JobProgressEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes the progress of batch jobs to Server-Sent Events subscribers. A {@code progress} event
+ * is sent on subscription and then at most every {@link #PUBLISH_INTERVAL} while chunks complete;
+ * a final {@code complete} event carries the outcome before the stream is closed.
+ * <p>
+ * Progress is tracked in memory, so executions are only followed live on the instance running them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobProgressPublisher {
+
+    /**
+     * Job execution context key of the number of items the job is expected to read, when known.
+     */
+    public static final String TOTAL_ITEMS_KEY = "progress.totalItems";
+
+    static final String PROGRESS_EVENT = "progress";
+    static final String COMPLETE_EVENT = "complete";
+
+    private static final Duration PUBLISH_INTERVAL = Duration.ofMillis(500);
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofHours(1).toMillis();
+
+    private final JobExplorer jobExplorer;
+
+    private final Map<Long, TrackedJob> trackedJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Open a stream for a job execution. Executions that are not running get a single
+     * {@code complete} event with their final counts. Running executions that are not queued or
+     * started on this instance, running on another one or left STARTED by a crash, get a single
+     * {@code progress} event, since nothing here would ever complete their stream.
+     */
+    public SseEmitter subscribe(JobExecution jobExecution) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        if (!jobExecution.isRunning()) {
+            sendAndComplete(emitter, COMPLETE_EVENT, jobExecution);
+            return emitter;
+        }
+
+        TrackedJob job = jobExecution.getStatus() == BatchStatus.STARTING
+                // Queued executions are tracked here until the job starts and takes over the entry
+                ? trackedJobs.computeIfAbsent(jobExecution.getId(), id -> new TrackedJob(jobExecution))
+                : trackedJobs.get(jobExecution.getId());
+
+        if (job == null) {
+            JobExecution current = currentExecution(jobExecution);
+            sendAndComplete(emitter, current.isRunning() ? PROGRESS_EVENT : COMPLETE_EVENT, current);
+            return emitter;
+        }
+
+        job.lock.lock();
+        try {
+            if (job.finished) {
+                sendAndComplete(emitter, COMPLETE_EVENT, job.jobExecution);
+                return emitter;
+            }
+
+            emitter.onCompletion(() -> unsubscribe(job, emitter));
+            emitter.onTimeout(emitter::complete);
+            emitter.onError(e -> unsubscribe(job, emitter));
+            if (send(emitter, PROGRESS_EVENT, snapshot(job.jobExecution))) {
+                job.emitters.add(emitter);
+            }
+        } finally {
+            job.lock.unlock();
+        }
+
+        // The job may have finished between the snapshot and the registration, without seeing this entry
+        JobExecution current = currentExecution(jobExecution);
+        if (!current.isRunning()) {
+            trackedJobs.remove(current.getId(), job);
+            finish(job, current);
+        }
+        return emitter;
+    }
+
+    void jobStarted(JobExecution jobExecution) {
+        TrackedJob job = trackedJobs.computeIfAbsent(jobExecution.getId(), id -> new TrackedJob(jobExecution));
+        job.jobExecution = jobExecution;
+        job.started = true;
+    }
+
+    /**
+     * Push the current counts, unless the last push is more recent than the publish interval or another
+     * partition is already publishing. Worker threads never wait on a slow subscriber of another thread.
+     */
+    void chunkCompleted(JobExecution jobExecution) {
+        TrackedJob job = trackedJobs.get(jobExecution.getId());
+        if (job == null || job.emitters.isEmpty() || !job.lock.tryLock()) {
+            return;
+        }
+
+        try {
+            long now = System.nanoTime();
+            if (now - job.lastPublished >= PUBLISH_INTERVAL.toNanos()) {
+                job.lastPublished = now;
+                publish(job, PROGRESS_EVENT, snapshot(jobExecution));
+            }
+        } finally {
+            job.lock.unlock();
+        }
+    }
+
+    void stepCompleted(JobExecution jobExecution) {
+        TrackedJob job = trackedJobs.get(jobExecution.getId());
+        if (job == null || job.emitters.isEmpty()) {
+            return;
+        }
+
+        job.lock.lock();
+        try {
+            job.lastPublished = System.nanoTime();
+            publish(job, PROGRESS_EVENT, snapshot(jobExecution));
+        } finally {
+            job.lock.unlock();
+        }
+    }
+
+    void jobFinished(JobExecution jobExecution) {
+        TrackedJob job = trackedJobs.remove(jobExecution.getId());
+        if (job != null) {
+            finish(job, jobExecution);
+        }
+    }
+
+    private void finish(TrackedJob job, JobExecution jobExecution) {
+        job.lock.lock();
+        try {
+            if (job.finished) {
+                return;
+            }
+            job.finished = true;
+            job.jobExecution = jobExecution;
+            publish(job, COMPLETE_EVENT, snapshot(jobExecution));
+            job.emitters.forEach(SseEmitter::complete);
+            job.emitters.clear();
+        } finally {
+            job.lock.unlock();
+        }
+    }
+
+    /**
+     * Counts, throughput and estimated time remaining of a job execution. The rate is measured over the
+     * whole run, and the estimate is only given while running with a known item total.
+     */
+    static JobProgressEvent snapshot(JobExecution jobExecution) {
+        StepCounts counts = StepCounts.of(jobExecution);
+        Long totalItems = jobExecution.getExecutionContext().containsKey(TOTAL_ITEMS_KEY)
+                ? jobExecution.getExecutionContext().getLong(TOTAL_ITEMS_KEY)
+                : null;
+
+        Double itemsPerSecond = null;
+        Long etaSeconds = null;
+        LocalDateTime startTime = jobExecution.getStartTime();
+        if (startTime != null) {
+            LocalDateTime endTime = jobExecution.getEndTime() != null ? jobExecution.getEndTime() : LocalDateTime.now();
+            double elapsedSeconds = Duration.between(startTime, endTime).toMillis() / 1000.0;
+
+            if (elapsedSeconds > 0) {
+                double rate = counts.readCount() / elapsedSeconds;
+                itemsPerSecond = Math.round(rate * 10) / 10.0;
+
+                if (totalItems != null && rate > 0 && jobExecution.isRunning()) {
+                    etaSeconds = (long) Math.ceil(Math.max(totalItems - counts.readCount(), 0) / rate);
+                }
+            }
+        }
+
+        return JobProgressEvent.builder()
+                .jobExecutionId(jobExecution.getId())
+                .jobName(jobExecution.getJobInstance().getJobName())
+                .status(jobExecution.getStatus())
+                .readCount(counts.readCount())
+                .writeCount(counts.writeCount())
+                .skipCount(counts.skipCount())
+                .totalItems(totalItems)
+                .itemsPerSecond(itemsPerSecond)
+                .etaSeconds(etaSeconds)
+                .exitDescription(jobExecution.isRunning() ? null : jobExecution.getExitStatus().getExitDescription())
+                .build();
+    }
+
+    private JobExecution currentExecution(JobExecution jobExecution) {
+        JobExecution current = jobExplorer.getJobExecution(jobExecution.getId());
+        return current != null ? current : jobExecution;
+    }
+
+    private void sendAndComplete(SseEmitter emitter, String eventName, JobExecution jobExecution) {
+        if (send(emitter, eventName, snapshot(jobExecution))) {
+            emitter.complete();
+        }
+    }
+
+    private void publish(TrackedJob job, String eventName, JobProgressEvent event) {
+        for (SseEmitter emitter : job.emitters) {
+            if (!send(emitter, eventName, event)) {
+                job.emitters.remove(emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String eventName, JobProgressEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(event, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping job progress subscriber of execution {}: {}", event.getJobExecutionId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void unsubscribe(TrackedJob job, SseEmitter emitter) {
+        job.emitters.remove(emitter);
+        // Forget executions that never started here once nobody is listening
+        if (job.emitters.isEmpty() && !job.started) {
+            trackedJobs.remove(job.jobExecution.getId(), job);
+        }
+    }
+
+    private static final class TrackedJob {
+        private volatile JobExecution jobExecution;
+        private volatile boolean started;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private long lastPublished;
+        private boolean finished;
+
+        private TrackedJob(JobExecution jobExecution) {
+            this.jobExecution = jobExecution;
+        }
+    }
+
+}
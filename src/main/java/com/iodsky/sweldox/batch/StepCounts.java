@@ -0,0 +1,40 @@
+package com.iodsky.sweldox.batch;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Read, write and skip counts of a job execution, summed over the steps that process items.
+ */
+record StepCounts(long readCount, long writeCount, long skipCount) {
+
+    static StepCounts of(JobExecution jobExecution) {
+        Collection<StepExecution> stepExecutions = jobExecution.getStepExecutions();
+        long readCount = 0;
+        long writeCount = 0;
+        long skipCount = 0;
+
+        // Partition managers aggregate the counts of their workers ("manager:partitionN"), skip them
+        Set<String> partitionManagers = stepExecutions.stream()
+                .map(StepExecution::getStepName)
+                .filter(stepName -> stepName.contains(":"))
+                .map(stepName -> stepName.substring(0, stepName.indexOf(':')))
+                .collect(Collectors.toSet());
+
+        for (StepExecution stepExecution : stepExecutions) {
+            if (partitionManagers.contains(stepExecution.getStepName())) {
+                continue;
+            }
+            readCount += stepExecution.getReadCount();
+            writeCount += stepExecution.getWriteCount();
+            skipCount += stepExecution.getSkipCount();
+        }
+
+        return new StepCounts(readCount, writeCount, skipCount);
+    }
+
+}
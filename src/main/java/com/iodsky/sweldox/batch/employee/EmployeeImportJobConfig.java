@@ -1,95 +1,175 @@
 package com.iodsky.sweldox.batch.employee;
 
+import com.iodsky.sweldox.batch.ImportFileUtil;
 import com.iodsky.sweldox.batch.ImportJobExecutionListener;
+import com.iodsky.sweldox.batch.ImportMode;
+import com.iodsky.sweldox.batch.JobProgressListener;
 import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.security.user.User;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.JpaItemWriter;
 import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
+import org.springframework.batch.item.support.builder.SynchronizedItemStreamReaderBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 
-import java.nio.file.Paths;
-
 @Configuration
 @RequiredArgsConstructor
 public class EmployeeImportJobConfig {
 
-    private final EmployeeImportProcessor employeeCsvRowProcessor;
+    public static final String JOB_NAME = "importEmployeesJob";
+
+    /**
+     * Optional job parameter with the number of chunks imported in parallel, serial when absent or 1.
+     */
+    public static final String CONCURRENCY_PARAMETER = "concurrency";
+
     private final EmployeeImportSkipListener skipListener;
     private final ImportJobExecutionListener jobCompletionListener;
+    private final JobProgressListener jobProgressListener;
 
     @Value("${batch.upload.directory}")
     private String uploadDirectory;
 
+    /**
+     * Reader of the uploaded file, shared by the chunk threads in parallel mode. The read position is only
+     * saved to the step context when reading serially, since chunks may then complete out of order.
+     */
     @Bean
     @StepScope
-    public FlatFileItemReader<EmployeeImportRecord> employeeCsvReader(
-            @Value("#{jobParameters['fileName']}") String fileName) {
-        return new FlatFileItemReaderBuilder<EmployeeImportRecord>()
+    public SynchronizedItemStreamReader<EmployeeImportRecord> employeeCsvReader(
+            @Value("#{jobParameters['fileName']}") String fileName,
+            @Value("#{jobParameters['" + CONCURRENCY_PARAMETER + "']}") Long concurrency) {
+        FlatFileItemReader<EmployeeImportRecord> reader = new FlatFileItemReaderBuilder<EmployeeImportRecord>()
                 .linesToSkip(1)
                 .name("employeeCsvItemReader")
-                .resource(new FileSystemResource(Paths.get(uploadDirectory, fileName).toFile()))
+                .resource(ImportFileUtil.resource(uploadDirectory, fileName))
                 .delimited()
                 .delimiter(",")
                 .names(EmployeeImportRecord.CSV_COLUMN_NAMES)
                 .targetType(EmployeeImportRecord.class)
+                .saveState(!isParallel(concurrency))
                 .build();
-    }
 
-    @Bean
-    public ItemProcessor<EmployeeImportRecord, Employee> employeeProcessor() {
-        return employeeCsvRowProcessor;
+        return new SynchronizedItemStreamReaderBuilder<EmployeeImportRecord>()
+                .delegate(reader)
+                .build();
     }
 
+    // Persist rather than merge, so the employees of the chunk get their generated IDs
     @Bean
     public JpaItemWriter<Employee> employeeWriter(EntityManagerFactory entityManagerFactory) {
         return new JpaItemWriterBuilder<Employee>()
                 .entityManagerFactory(entityManagerFactory)
+                .usePersist(true)
                 .build();
     }
 
+    /**
+     * Writer of the import step, inserting employees through JPA, or upserting them with JDBC batches
+     * in the {@link ImportMode#UPSERT} mode.
+     */
+    @Bean
+    @StepScope
+    public EmployeeImportWriter employeeImportWriter(JdbcTemplate jdbcTemplate,
+                                                     AuditorAware<User> auditorProvider,
+                                                     JpaItemWriter<Employee> employeeWriter,
+                                                     @Value("#{stepExecution.jobExecution.jobId}") Long jobInstanceId,
+                                                     @Value("#{jobParameters['" + ImportMode.JOB_PARAMETER + "']}") String mode) {
+        ItemWriter<Employee> delegate = ImportMode.of(mode) == ImportMode.UPSERT
+                ? new EmployeeUpsertWriter(jdbcTemplate, auditorProvider)
+                : employeeWriter;
+        return new EmployeeImportWriter(jdbcTemplate, delegate, jobInstanceId);
+    }
+
+    /**
+     * Import step, processing chunks on {@code concurrency} threads when the job parameter is above 1.
+     * The processor is step scoped and loads its reference data caches before the first chunk.
+     * Supervisors are only staged here, since they may be written by a later chunk.
+     */
     @Bean
-    public Step employeeImportStep(ItemReader<EmployeeImportRecord> employeeCsvReader,
-                                   ItemProcessor<EmployeeImportRecord, Employee> employeeProcessor,
-                                   JpaItemWriter<Employee> employeeWriter,
+    @JobScope
+    @SuppressWarnings("removal")
+    public Step employeeImportStep(@Value("#{jobParameters['" + CONCURRENCY_PARAMETER + "']}") Long concurrency,
+                                   SynchronizedItemStreamReader<EmployeeImportRecord> employeeCsvReader,
+                                   EmployeeImportProcessor employeeProcessor,
+                                   EmployeeImportWriter employeeImportWriter,
                                    JobRepository jobRepository,
                                    PlatformTransactionManager transactionManager) {
-        return new StepBuilder("importEmployeesStep", jobRepository)
+        SimpleStepBuilder<EmployeeImportRecord, Employee> builder = new StepBuilder("importEmployeesStep", jobRepository)
                 .<EmployeeImportRecord, Employee>chunk(10, transactionManager)
                 .reader(employeeCsvReader)
                 .processor(employeeProcessor)
-                .writer(employeeWriter)
+                .writer(employeeImportWriter)
                 .faultTolerant()
                 .skip(DataIntegrityViolationException.class)
                 .skipLimit(100)
                 .listener(skipListener)
+                .listener((StepExecutionListener) jobProgressListener)
+                .listener((ChunkListener) jobProgressListener)
+                .allowStartIfComplete(true);
+
+        if (isParallel(concurrency)) {
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("employee-import-");
+            taskExecutor.setConcurrencyLimit(concurrency.intValue());
+
+            // The repeat template otherwise caps concurrent chunks at 4 whatever the executor allows
+            builder.taskExecutor(taskExecutor)
+                    .throttleLimit(concurrency.intValue());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Sets the supervisors staged by the import step, once every employee of the file is inserted.
+     */
+    @Bean
+    public Step resolveSupervisorsStep(SupervisorResolutionTasklet supervisorResolutionTasklet,
+                                       JobRepository jobRepository,
+                                       PlatformTransactionManager transactionManager) {
+        return new StepBuilder("resolveSupervisorsStep", jobRepository)
+                .tasklet(supervisorResolutionTasklet, transactionManager)
+                .listener((StepExecutionListener) jobProgressListener)
                 .allowStartIfComplete(true)
                 .build();
     }
 
     @Bean
-    public Job employeeImportJob(Step employeeImportStep, JobRepository jobRepository) {
-        return new JobBuilder("importEmployeesJob", jobRepository)
+    public Job employeeImportJob(Step employeeImportStep, Step resolveSupervisorsStep, JobRepository jobRepository) {
+        return new JobBuilder(JOB_NAME, jobRepository)
                 .incrementer(new RunIdIncrementer())
                 .listener(jobCompletionListener)
+                .listener(jobProgressListener)
                 .start(employeeImportStep)
+                .next(resolveSupervisorsStep)
                 .build();
     }
 
+    private static boolean isParallel(Long concurrency) {
+        return concurrency != null && concurrency > 1;
+    }
+
 }
@@ -1,7 +1,6 @@
 package com.iodsky.sweldox.batch.employee;
 
 import com.iodsky.sweldox.employee.Employee;
-import com.iodsky.sweldox.employee.EmployeeRepository;
 import com.iodsky.sweldox.department.Department;
 import com.iodsky.sweldox.department.DepartmentRepository;
 import com.iodsky.sweldox.position.Position;
@@ -12,39 +11,64 @@ import com.iodsky.sweldox.payroll.benefit.BenefitType;
 import com.iodsky.sweldox.payroll.benefit.BenefitTypeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * ItemProcessor for transforming EmployeeImportRecord to Employee entity with validation.
- * Uses in-memory caching to optimize database lookups for reference data.
+ * Reference data is loaded into immutable caches when the step starts, so one instance can serve
+ * the chunks of a multi-threaded step. Supervisors are not looked up: the returned employee's
+ * supervisor only carries the referenced ID, for {@link EmployeeImportWriter} to stage.
  */
 @Component
+@StepScope
 @RequiredArgsConstructor
 @Slf4j
-public class EmployeeImportProcessor implements ItemProcessor<EmployeeImportRecord, Employee> {
+public class EmployeeImportProcessor implements ItemProcessor<EmployeeImportRecord, Employee>, StepExecutionListener {
 
     private final PositionRepository positionRepository;
     private final DepartmentRepository departmentRepository;
     private final BenefitTypeRepository benefitTypeRepository;
-    private final EmployeeRepository employeeRepository;
 
     // Cache for reference data to avoid repeated database queries
-    private Map<String, Position> positionCache;
-    private Map<String, Department> departmentCache;
-    private Map<String, BenefitType> benefitTypeCache;
-    private Map<Long, Employee> supervisorCache;
+    private Map<String, Position> positionCache = Map.of();
+    private Map<String, Department> departmentCache = Map.of();
+    private Map<String, BenefitType> benefitTypeCache = Map.of();
+
+    /**
+     * Load the reference data caches once, before any chunk is processed.
+     */
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        log.info("Initializing reference data caches...");
+
+        positionCache = positionRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(p -> p.getTitle().toUpperCase(), Function.identity(), (a, b) -> b));
+        log.info("Loaded {} positions into cache", positionCache.size());
+
+        departmentCache = departmentRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(d -> d.getTitle().toUpperCase(), Function.identity(), (a, b) -> b));
+        log.info("Loaded {} departments into cache", departmentCache.size());
+
+        benefitTypeCache = benefitTypeRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(b -> b.getId().toUpperCase(), Function.identity(), (a, b) -> b));
+        log.info("Loaded {} benefit types into cache", benefitTypeCache.size());
+
+        log.info("Reference data caches initialized successfully");
+    }
 
     @Override
     public Employee process(EmployeeImportRecord item) {
         log.debug("Processing employee: {} {}", item.getFirstName(), item.getLastName());
 
-        // Initialize caches on first run (lazy loading)
-        initializeCaches();
-
         // Convert CSV record to Employee entity
         Employee employee = EmployeeImportRecord.toEntity(item);
 
@@ -82,19 +106,9 @@ public class EmployeeImportProcessor implements ItemProcessor<EmployeeImportReco
     private void validateEmployeeSupervisor(EmployeeImportRecord item, Employee entity) {
         if (item.getSupervisorId() != null && !item.getSupervisorId().isEmpty()) {
             try {
+                // Reference only, resolved once the whole file is imported
                 Long supervisorId = Long.parseLong(item.getSupervisorId());
-                Employee supervisor = supervisorCache.get(supervisorId);
-
-                if (supervisor == null) {
-                    supervisor = employeeRepository.findById(supervisorId).orElse(null);
-                    if (supervisor != null) {
-                        supervisorCache.put(supervisorId, supervisor);
-                    } else {
-                        log.warn("Supervisor with ID '{}' not found for employee {} {}. Setting supervisor to null.",
-                                supervisorId, item.getFirstName(), item.getLastName());
-                    }
-                }
-                entity.setSupervisor(supervisor);
+                entity.setSupervisor(Employee.builder().id(supervisorId).build());
             } catch (NumberFormatException e) {
                 log.warn("Invalid supervisor ID '{}' for employee {} {}.",
                         item.getSupervisorId(), item.getFirstName(), item.getLastName());
@@ -102,7 +116,6 @@ public class EmployeeImportProcessor implements ItemProcessor<EmployeeImportReco
         }
     }
 
-
     private void validateEmployeeBenefits(EmployeeImportRecord item, Employee entity) {
         List<Benefit> benefits = new ArrayList<>();
 
@@ -121,45 +134,6 @@ public class EmployeeImportProcessor implements ItemProcessor<EmployeeImportReco
         entity.setBenefits(benefits);
     }
 
-    /**
-     * Initialize caches with reference data from database.
-     * This is called once before processing the first item.
-     */
-    private void initializeCaches() {
-        if (positionCache == null) {
-            log.info("Initializing reference data caches...");
-
-            // Load all positions into cache
-            positionCache = new HashMap<>();
-            List<Position> positions = positionRepository.findAll();
-            for (Position position : positions) {
-                positionCache.put(position.getTitle().toUpperCase(), position);
-            }
-            log.info("Loaded {} positions into cache", positions.size());
-
-            // Load all departments into cache
-            departmentCache = new HashMap<>();
-            List<Department> departments = departmentRepository.findAll();
-            for (Department department : departments) {
-                departmentCache.put(department.getTitle().toUpperCase(), department);
-            }
-            log.info("Loaded {} departments into cache", departments.size());
-
-            // Load all benefit types into cache
-            benefitTypeCache = new HashMap<>();
-            List<BenefitType> benefitTypes = benefitTypeRepository.findAll();
-            for (BenefitType benefitType : benefitTypes) {
-                benefitTypeCache.put(benefitType.getId().toUpperCase(), benefitType);
-            }
-            log.info("Loaded {} benefit types into cache", benefitTypes.size());
-
-            // Initialize supervisor cache (will be populated on-demand)
-            supervisorCache = new HashMap<>();
-
-            log.info("Reference data caches initialized successfully");
-        }
-    }
-
     /**
      * Helper method to add a benefit with validation.
      */
@@ -189,19 +163,4 @@ public class EmployeeImportProcessor implements ItemProcessor<EmployeeImportReco
         }
     }
 
-
-    public void clearCaches() {
-        if (positionCache != null) positionCache.clear();
-        if (departmentCache != null) departmentCache.clear();
-        if (benefitTypeCache != null) benefitTypeCache.clear();
-        if (supervisorCache != null) supervisorCache.clear();
-
-        positionCache = null;
-        departmentCache = null;
-        benefitTypeCache = null;
-        supervisorCache = null;
-
-        log.info("Caches cleared");
-    }
-
 }
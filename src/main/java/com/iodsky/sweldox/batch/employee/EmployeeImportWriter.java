@@ -0,0 +1,66 @@
+package com.iodsky.sweldox.batch.employee;
+
+import com.iodsky.sweldox.employee.Employee;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * First pass of the employee import. Writes the chunk's employees without their supervisors, then
+ * stages each supervisor reference in {@code employee_import_supervisor} in the same transaction,
+ * for {@link SupervisorResolutionTasklet} to apply once the whole file is written.
+ * <p>
+ * The supervisors coming from {@link EmployeeImportProcessor} only carry the referenced ID. A rolled back
+ * chunk is processed again before it is retried, so the references are always there to be read.
+ */
+@RequiredArgsConstructor
+public class EmployeeImportWriter implements ItemWriter<Employee> {
+
+    private static final String INSERT_SUPERVISOR_REFERENCE = """
+            INSERT INTO employee_import_supervisor (job_instance_id, employee_id, supervisor_id)
+            VALUES (?, ?, ?)
+            ON CONFLICT (job_instance_id, employee_id) DO UPDATE SET supervisor_id = EXCLUDED.supervisor_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemWriter<Employee> delegate;
+    private final Long jobInstanceId;
+
+    @Override
+    public void write(Chunk<? extends Employee> chunk) throws Exception {
+        Map<Employee, Long> supervisorIds = new IdentityHashMap<>();
+        for (Employee employee : chunk) {
+            if (employee.getSupervisor() != null) {
+                supervisorIds.put(employee, employee.getSupervisor().getId());
+                employee.setSupervisor(null);
+            }
+        }
+
+        // Employee IDs are assigned by the delegate, an upserted employee may appear twice in the file
+        delegate.write(chunk);
+
+        // Upserted rows of the same employee share the ID, keep one reference per ID for the multi-row batch
+        Map<Long, Long> supervisorIdsByEmployee = new LinkedHashMap<>();
+        for (Employee employee : chunk) {
+            if (supervisorIds.containsKey(employee)) {
+                supervisorIdsByEmployee.put(employee.getId(), supervisorIds.get(employee));
+            }
+        }
+
+        List<Object[]> references = new ArrayList<>(supervisorIdsByEmployee.size());
+        supervisorIdsByEmployee.forEach((employeeId, supervisorId) ->
+                references.add(new Object[]{jobInstanceId, employeeId, supervisorId}));
+
+        if (!references.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SUPERVISOR_REFERENCE, references);
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.iodsky.sweldox.batch.employee;
+
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.employee.GovernmentId;
+import com.iodsky.sweldox.payroll.benefit.Benefit;
+import com.iodsky.sweldox.security.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes a chunk of imported employees in the upsert mode, with one JDBC batch per table of
+ * {@code INSERT ... ON CONFLICT DO UPDATE} statements, so importing the same file again updates the
+ * employees instead of failing on their unique columns.
+ * <p>
+ * Employees are matched on their SSS number. Those without a match get a new ID from {@code employee_id_seq},
+ * and the chosen ID is set on the entity. An updated employee keeps its supervisor until the supervisor
+ * pass sets the one from the file, so a run that stops early leaves the org chart as it was. Supervisors
+ * and benefits left blank in the file are kept as they are.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeUpsertWriter implements ItemWriter<Employee> {
+
+    private static final String SELECT_EMPLOYEE_IDS = """
+            SELECT sss_no, employee_id FROM government_id WHERE sss_no = ANY (?)
+            """;
+
+    private static final String NEXT_EMPLOYEE_IDS = """
+            SELECT nextval('employee_id_seq') FROM generate_series(1, ?)
+            """;
+
+    private static final String UPSERT_EMPLOYEE = """
+            INSERT INTO employee (id, first_name, last_name, birthday, address, phone_number, supervisor_id,
+                                  position_id, department_id, status, basic_salary, hourly_rate, semi_monthly_rate,
+                                  start_shift, end_shift, created_at, updated_at, created_by, last_modified_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, NULL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (id) DO UPDATE SET
+                first_name = EXCLUDED.first_name,
+                last_name = EXCLUDED.last_name,
+                birthday = EXCLUDED.birthday,
+                address = EXCLUDED.address,
+                phone_number = EXCLUDED.phone_number,
+                supervisor_id = employee.supervisor_id,
+                position_id = EXCLUDED.position_id,
+                department_id = EXCLUDED.department_id,
+                status = EXCLUDED.status,
+                basic_salary = EXCLUDED.basic_salary,
+                hourly_rate = EXCLUDED.hourly_rate,
+                semi_monthly_rate = EXCLUDED.semi_monthly_rate,
+                start_shift = EXCLUDED.start_shift,
+                end_shift = EXCLUDED.end_shift,
+                updated_at = EXCLUDED.updated_at,
+                last_modified_by = EXCLUDED.last_modified_by,
+                version = employee.version + 1
+            """;
+
+    private static final String UPSERT_GOVERNMENT_ID = """
+            INSERT INTO government_id (id, employee_id, sss_no, tin_no, philhealth_no, pagibig_no,
+                                       created_at, updated_at, created_by, last_modified_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (employee_id) DO UPDATE SET
+                sss_no = EXCLUDED.sss_no,
+                tin_no = EXCLUDED.tin_no,
+                philhealth_no = EXCLUDED.philhealth_no,
+                pagibig_no = EXCLUDED.pagibig_no,
+                updated_at = EXCLUDED.updated_at,
+                last_modified_by = EXCLUDED.last_modified_by,
+                version = government_id.version + 1
+            """;
+
+    private static final String UPSERT_BENEFIT = """
+            INSERT INTO benefit (id, employee_id, benefit_type_id, amount,
+                                 created_at, updated_at, created_by, last_modified_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (employee_id, benefit_type_id) DO UPDATE SET
+                amount = EXCLUDED.amount,
+                updated_at = EXCLUDED.updated_at,
+                last_modified_by = EXCLUDED.last_modified_by,
+                version = benefit.version + 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<User> auditorProvider;
+
+    @Override
+    public void write(Chunk<? extends Employee> chunk) {
+        Timestamp now = Timestamp.from(Instant.now());
+        UUID auditor = auditorProvider.getCurrentAuditor().map(User::getId).orElse(null);
+
+        assignEmployeeIds(chunk);
+
+        // A batch is sent as one multi-row statement, which may not update a row twice: keep the last row per ID
+        Map<Long, Employee> employees = new LinkedHashMap<>();
+        for (Employee employee : chunk) {
+            employees.put(employee.getId(), employee);
+        }
+
+        List<Object[]> employeeRows = new ArrayList<>(employees.size());
+        List<Object[]> governmentIdRows = new ArrayList<>(employees.size());
+        List<Object[]> benefitRows = new ArrayList<>(employees.size() * 3);
+
+        for (Employee employee : employees.values()) {
+            employeeRows.add(new Object[]{
+                    employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getBirthday(),
+                    employee.getAddress(), employee.getPhoneNumber(),
+                    employee.getPosition() != null ? employee.getPosition().getId() : null,
+                    employee.getDepartment() != null ? employee.getDepartment().getId() : null,
+                    employee.getStatus().name(), employee.getBasicSalary(), employee.getHourlyRate(),
+                    employee.getSemiMonthlyRate(), employee.getStartShift(), employee.getEndShift(),
+                    now, now, auditor, auditor
+            });
+
+            GovernmentId governmentId = employee.getGovernmentId();
+            if (governmentId != null) {
+                governmentIdRows.add(new Object[]{
+                        UUID.randomUUID(), employee.getId(), governmentId.getSssNumber(), governmentId.getTinNumber(),
+                        governmentId.getPhilhealthNumber(), governmentId.getPagIbigNumber(),
+                        now, now, auditor, auditor
+                });
+            }
+
+            for (Benefit benefit : employee.getBenefits()) {
+                benefitRows.add(new Object[]{
+                        UUID.randomUUID(), employee.getId(), benefit.getBenefitType().getId(), benefit.getAmount(),
+                        now, now, auditor, auditor
+                });
+            }
+        }
+
+        // Parents first to satisfy the foreign keys
+        jdbcTemplate.batchUpdate(UPSERT_EMPLOYEE, employeeRows);
+        if (!governmentIdRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_GOVERNMENT_ID, governmentIdRows);
+        }
+        if (!benefitRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_BENEFIT, benefitRows);
+        }
+
+        log.debug("Upserted {} employees, {} government IDs and {} benefits",
+                employeeRows.size(), governmentIdRows.size(), benefitRows.size());
+    }
+
+    /**
+     * Set the ID of the existing employee with the same SSS number, or a new one. Rows of the chunk
+     * sharing an SSS number share the ID, so the later row wins.
+     */
+    private void assignEmployeeIds(Chunk<? extends Employee> chunk) {
+        String[] sssNumbers = chunk.getItems().stream()
+                .map(EmployeeUpsertWriter::sssNumber)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(String[]::new);
+
+        Map<String, Long> employeeIds = new HashMap<>();
+        if (sssNumbers.length > 0) {
+            jdbcTemplate.query(SELECT_EMPLOYEE_IDS,
+                    rs -> {
+                        employeeIds.put(rs.getString("sss_no"), rs.getLong("employee_id"));
+                    },
+                    (Object) sssNumbers);
+        }
+
+        // Upper bound, a few sequence values are skipped when new rows share an SSS number
+        int unmatched = (int) chunk.getItems().stream()
+                .filter(employee -> !employeeIds.containsKey(sssNumber(employee)))
+                .count();
+        Iterator<Long> newIds = unmatched == 0
+                ? Collections.emptyIterator()
+                : jdbcTemplate.queryForList(NEXT_EMPLOYEE_IDS, Long.class, unmatched).iterator();
+
+        for (Employee employee : chunk) {
+            String sssNumber = sssNumber(employee);
+            Long employeeId = sssNumber != null ? employeeIds.get(sssNumber) : null;
+            if (employeeId == null) {
+                employeeId = newIds.next();
+                if (sssNumber != null) {
+                    employeeIds.put(sssNumber, employeeId);
+                }
+            }
+            employee.setId(employeeId);
+        }
+    }
+
+    private static String sssNumber(Employee employee) {
+        return employee.getGovernmentId() != null ? employee.getGovernmentId().getSssNumber() : null;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.iodsky.sweldox.batch.employee;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Second pass of the employee import. Sets the supervisors staged by {@link EmployeeImportWriter} with a
+ * single set based UPDATE, matching employees inserted anywhere in the file as well as existing ones.
+ * References to employees that do not exist are logged and left unset, then the staged rows are removed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SupervisorResolutionTasklet implements Tasklet {
+
+    private static final String SELECT_UNRESOLVED = """
+            SELECT s.employee_id, s.supervisor_id
+            FROM employee_import_supervisor s
+            WHERE s.job_instance_id = ?
+              AND NOT EXISTS (SELECT 1 FROM employee sup WHERE sup.id = s.supervisor_id)
+            """;
+
+    private static final String UPDATE_SUPERVISORS = """
+            UPDATE employee e
+            SET supervisor_id = s.supervisor_id, updated_at = CURRENT_TIMESTAMP, version = e.version + 1
+            FROM employee_import_supervisor s
+            WHERE s.job_instance_id = ?
+              AND e.id = s.employee_id
+              AND EXISTS (SELECT 1 FROM employee sup WHERE sup.id = s.supervisor_id)
+            """;
+
+    private static final String DELETE_REFERENCES = "DELETE FROM employee_import_supervisor WHERE job_instance_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        resolve(contribution.getStepExecution().getJobExecution().getJobId());
+        return RepeatStatus.FINISHED;
+    }
+
+    /**
+     * Apply and remove the supervisor references staged by a job instance. Also called once the job
+     * ends, so a run stopping before this step still sets the supervisors of the employees it committed.
+     */
+    @Transactional
+    public void resolve(Long jobInstanceId) {
+        jdbcTemplate.query(SELECT_UNRESOLVED, rs -> {
+            log.warn("Supervisor with ID '{}' not found for employee {}. Leaving supervisor unset.",
+                    rs.getLong("supervisor_id"), rs.getLong("employee_id"));
+        }, jobInstanceId);
+
+        int resolved = jdbcTemplate.update(UPDATE_SUPERVISORS, jobInstanceId);
+        jdbcTemplate.update(DELETE_REFERENCES, jobInstanceId);
+
+        if (resolved > 0) {
+            log.info("Resolved supervisors of {} imported employees", resolved);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.iodsky.sweldox.batch.payroll;
+
+import com.iodsky.sweldox.employee.EmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Streams active employee IDs in ascending order, one keyset page at a time
+ * ({@code id > lastId ORDER BY id LIMIT pageSize}), optionally bounded to an ID range.
+ * <p>
+ * The last ID handed out is saved in the execution context on every commit, so a restarted
+ * step resumes after the last committed chunk instead of reading from the beginning.
+ */
+@Slf4j
+public class EmployeeIdKeysetReader extends ItemStreamSupport implements ItemStreamReader<Long> {
+
+    private static final String LAST_ID_KEY = "lastId";
+
+    private final EmployeeService employeeService;
+    private final long maxId;
+    private final int pageSize;
+
+    private final Deque<Long> page = new ArrayDeque<>();
+    private long lastId;
+    private boolean exhausted;
+
+    /**
+     * @param minId lowest ID to read (inclusive), or null for no lower bound
+     * @param maxId highest ID to read (inclusive), or null for no upper bound
+     */
+    public EmployeeIdKeysetReader(EmployeeService employeeService, Long minId, Long maxId, int pageSize) {
+        this.employeeService = employeeService;
+        this.lastId = minId == null ? Long.MIN_VALUE : minId - 1;
+        this.maxId = maxId == null ? Long.MAX_VALUE : maxId;
+        this.pageSize = pageSize;
+        setName(EmployeeIdKeysetReader.class.getSimpleName());
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String key = getExecutionContextKey(LAST_ID_KEY);
+        if (executionContext.containsKey(key)) {
+            lastId = executionContext.getLong(key);
+            log.info("Resuming employee ID reader after employee {}", lastId);
+        }
+    }
+
+    @Override
+    public Long read() {
+        if (page.isEmpty() && !exhausted) {
+            List<Long> employeeIds = employeeService.getActiveEmployeeIdsAfter(lastId, maxId, pageSize);
+            page.addAll(employeeIds);
+            exhausted = employeeIds.size() < pageSize;
+        }
+
+        Long employeeId = page.poll();
+        if (employeeId != null) {
+            lastId = employeeId;
+        }
+        return employeeId;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(getExecutionContextKey(LAST_ID_KEY), lastId);
+    }
+
+}
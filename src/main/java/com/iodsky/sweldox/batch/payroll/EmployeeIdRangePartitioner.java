@@ -0,0 +1,55 @@
+package com.iodsky.sweldox.batch.payroll;
+
+import com.iodsky.sweldox.employee.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the active employees into contiguous ID ranges of roughly equal size.
+ * Each partition receives {@code minId} and {@code maxId} (inclusive) in its execution context.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeIdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID_KEY = "minId";
+    public static final String MAX_ID_KEY = "maxId";
+
+    private final EmployeeService employeeService;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<Long> employeeIds = employeeService.getAllActiveEmployeeIds().stream()
+                .sorted()
+                .toList();
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        if (employeeIds.isEmpty()) {
+            return partitions;
+        }
+
+        int partitionCount = Math.max(1, Math.min(gridSize, employeeIds.size()));
+        int partitionSize = (employeeIds.size() + partitionCount - 1) / partitionCount;
+
+        for (int i = 0, start = 0; start < employeeIds.size(); i++, start += partitionSize) {
+            int end = Math.min(start + partitionSize, employeeIds.size()) - 1;
+
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID_KEY, employeeIds.get(start));
+            context.putLong(MAX_ID_KEY, employeeIds.get(end));
+            partitions.put("partition" + i, context);
+        }
+
+        log.info("Split {} active employees into {} partitions", employeeIds.size(), partitions.size());
+        return partitions;
+    }
+
+}
@@ -1,46 +1,59 @@
 package com.iodsky.sweldox.batch.payroll;
 
+import com.iodsky.sweldox.batch.JobProgressListener;
 import com.iodsky.sweldox.employee.EmployeeService;
 import com.iodsky.sweldox.payroll.core.Payroll;
-import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ItemReader;
-import org.springframework.batch.item.database.JpaItemWriter;
-import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
-import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
 @RequiredArgsConstructor
 public class GeneratePayrollJobConfig {
 
-    private final EmployeeService employeeService;
+    public static final String JOB_NAME = "generatePayrollJob";
+    public static final String PARTITIONED_STEP_NAME = "generatePayrollPartitionedStep";
 
-    @Bean
-    public ItemReader<Long> employeeIdReader() {
-        return new ListItemReader<>(employeeService.getAllActiveEmployeeIds());
-    }
+    private static final FlowExecutionStatus PARTITIONED = new FlowExecutionStatus("PARTITIONED");
+    private static final FlowExecutionStatus SERIAL = new FlowExecutionStatus("SERIAL");
 
+    private static final int EMPLOYEE_ID_PAGE_SIZE = 500;
 
+    private final EmployeeService employeeService;
+    private final JobProgressListener jobProgressListener;
+
+    /**
+     * Employee IDs of a step execution, streamed in keyset pages. Partition workers read their
+     * {@code minId}/{@code maxId} range; the serial step has neither and reads every active employee.
+     * The return type is the concrete reader so the step scoped proxy is registered as a stream.
+     */
     @Bean
-    public JpaItemWriter<Payroll> payrollWriter(EntityManagerFactory entityManagerFactory) {
-        return new JpaItemWriterBuilder<Payroll>()
-                .entityManagerFactory(entityManagerFactory)
-                .build();
+    @StepScope
+    public EmployeeIdKeysetReader employeeIdReader(
+            @Value("#{stepExecutionContext['" + EmployeeIdRangePartitioner.MIN_ID_KEY + "']}") Long minId,
+            @Value("#{stepExecutionContext['" + EmployeeIdRangePartitioner.MAX_ID_KEY + "']}") Long maxId) {
+        return new EmployeeIdKeysetReader(employeeService, minId, maxId, EMPLOYEE_ID_PAGE_SIZE);
     }
 
     @Bean
-    public Step generatePayrollStep(ItemReader<Long> employeeIdReader,
+    public Step generatePayrollStep(EmployeeIdKeysetReader employeeIdReader,
                                     PayrollitemProcessor payrollItemProcessor,
-                                    JpaItemWriter<Payroll> payrollWriter,
+                                    PayrollJdbcWriter payrollWriter,
                                     JobRepository jobRepository,
                                     PlatformTransactionManager transactionManager) {
         return new StepBuilder("generatePayrollStep", jobRepository)
@@ -51,15 +64,83 @@ public class GeneratePayrollJobConfig {
                 .faultTolerant()
                 .skip(RuntimeException.class)
                 .skipLimit(100)
+                .listener((StepExecutionListener) jobProgressListener)
+                .listener((ChunkListener) jobProgressListener)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    /**
+     * Worker step of the partitioned mode. The processor is step scoped, so every
+     * partition gets its own instance and its own cached payroll configuration.
+     */
+    @Bean
+    public Step generatePayrollWorkerStep(EmployeeIdKeysetReader employeeIdReader,
+                                          PayrollitemProcessor payrollItemProcessor,
+                                          PayrollJdbcWriter payrollWriter,
+                                          JobRepository jobRepository,
+                                          PlatformTransactionManager transactionManager) {
+        return new StepBuilder("generatePayrollWorkerStep", jobRepository)
+                .<Long, Payroll>chunk(10, transactionManager)
+                .reader(employeeIdReader)
+                .processor(payrollItemProcessor)
+                .writer(payrollWriter)
+                .faultTolerant()
+                .skip(RuntimeException.class)
+                .skipLimit(100)
+                .listener((StepExecutionListener) jobProgressListener)
+                .listener((ChunkListener) jobProgressListener)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    /**
+     * Manager step of the partitioned mode. Worker step executions are named
+     * {@code generatePayrollPartitionedStep:partitionN} and run on an executor bounded
+     * by the {@code concurrency} job parameter (defaults to the partition count).
+     */
+    @Bean
+    @JobScope
+    public Step generatePayrollPartitionedStep(@Value("#{jobParameters['partitions']}") Long partitions,
+                                               @Value("#{jobParameters['concurrency']}") Long concurrency,
+                                               EmployeeIdRangePartitioner employeeIdRangePartitioner,
+                                               Step generatePayrollWorkerStep,
+                                               JobRepository jobRepository) {
+        int gridSize = partitions == null ? 1 : partitions.intValue();
+
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("payroll-partition-");
+        taskExecutor.setConcurrencyLimit(concurrency == null ? gridSize : concurrency.intValue());
+
+        return new StepBuilder(PARTITIONED_STEP_NAME, jobRepository)
+                .partitioner(PARTITIONED_STEP_NAME, employeeIdRangePartitioner)
+                .step(generatePayrollWorkerStep)
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor)
                 .allowStartIfComplete(true)
                 .build();
     }
 
     @Bean
-    public Job generatePayrollJob(Step generatePayrollStep, JobRepository jobRepository) {
-        return new JobBuilder("generatePayrollJob", jobRepository)
+    public JobExecutionDecider payrollModeDecider() {
+        return (jobExecution, stepExecution) -> {
+            Long partitions = jobExecution.getJobParameters().getLong("partitions");
+            return partitions != null && partitions > 1 ? PARTITIONED : SERIAL;
+        };
+    }
+
+    @Bean
+    public Job generatePayrollJob(JobExecutionDecider payrollModeDecider,
+                                  Step generatePayrollStep,
+                                  Step generatePayrollPartitionedStep,
+                                  JobRepository jobRepository) {
+        return new JobBuilder(JOB_NAME, jobRepository)
                 .incrementer(new RunIdIncrementer())
-                .start(generatePayrollStep)
+                .start(payrollModeDecider)
+                .on(PARTITIONED.getName()).to(generatePayrollPartitionedStep)
+                .from(payrollModeDecider)
+                .on("*").to(generatePayrollStep)
+                .end()
+                .listener(jobProgressListener)
                 .build();
     }
 
@@ -0,0 +1,116 @@
+package com.iodsky.sweldox.batch.payroll;
+
+import com.iodsky.sweldox.payroll.core.Payroll;
+import com.iodsky.sweldox.payroll.core.PayrollBenefit;
+import com.iodsky.sweldox.payroll.core.PayrollMetrics;
+import com.iodsky.sweldox.payroll.deduction.Deduction;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtd;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtdService;
+import com.iodsky.sweldox.security.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a chunk of payrolls with one JDBC batch per table instead of cascading entity persists.
+ * IDs are generated here, and the audit columns are filled the way the JPA listeners would,
+ * with {@code version} starting at 0. The year-to-date figures are updated in the same transaction.
+ * <p>
+ * With {@code reWriteBatchedInserts=true} on the datasource URL, the PostgreSQL driver sends
+ * each batch as multi-row inserts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollJdbcWriter implements ItemWriter<Payroll> {
+
+    private static final String INSERT_PAYROLL = """
+            INSERT INTO payroll (id, employee_id, period_start_date, period_end_date, pay_date, days_worked,
+                                 overtime, monthly_rate, daily_rate, gross_pay, total_benefits, total_deductions, net_pay,
+                                 created_at, updated_at, created_by, last_modified_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private static final String INSERT_DEDUCTION = """
+            INSERT INTO deduction (id, payroll_id, deduction_code, amount,
+                                   created_at, updated_at, created_by, last_modified_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private static final String INSERT_PAYROLL_BENEFIT = """
+            INSERT INTO payroll_benefits (id, payroll_id, benefit_type_id, amount,
+                                          created_at, updated_at, created_by, last_modified_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<User> auditorProvider;
+    private final PayrollMetrics payrollMetrics;
+    private final PayrollYtdService payrollYtdService;
+
+    @Override
+    public void write(Chunk<? extends Payroll> chunk) {
+        Timestamp now = Timestamp.from(Instant.now());
+        UUID auditor = auditorProvider.getCurrentAuditor().map(User::getId).orElse(null);
+
+        List<Object[]> payrollRows = new ArrayList<>(chunk.size());
+        List<Object[]> deductionRows = new ArrayList<>(chunk.size() * 4);
+        List<Object[]> benefitRows = new ArrayList<>();
+        List<PayrollYtd> ytdChanges = new ArrayList<>(chunk.size());
+
+        for (Payroll payroll : chunk) {
+            payroll.setId(UUID.randomUUID());
+            payroll.setVersion(0L);
+
+            payrollRows.add(new Object[]{
+                    payroll.getId(), payroll.getEmployee().getId(),
+                    payroll.getPeriodStartDate(), payroll.getPeriodEndDate(), payroll.getPayDate(), payroll.getDaysWorked(),
+                    payroll.getOvertime(), payroll.getMonthlyRate(), payroll.getDailyRate(), payroll.getGrossPay(),
+                    payroll.getTotalBenefits(), payroll.getTotalDeductions(), payroll.getNetPay(),
+                    now, now, auditor, auditor
+            });
+
+            for (Deduction deduction : payroll.getDeductions()) {
+                deduction.setId(UUID.randomUUID());
+                deductionRows.add(new Object[]{
+                        deduction.getId(), payroll.getId(), deduction.getDeductionType().getCode(), deduction.getAmount(),
+                        now, now, auditor, auditor
+                });
+            }
+
+            for (PayrollBenefit benefit : payroll.getBenefits()) {
+                benefit.setId(UUID.randomUUID());
+                benefitRows.add(new Object[]{
+                        benefit.getId(), payroll.getId(), benefit.getBenefitType().getId(), benefit.getAmount(),
+                        now, now, auditor, auditor
+                });
+            }
+
+            ytdChanges.add(PayrollYtd.of(payroll));
+        }
+
+        // Parents first to satisfy the foreign keys
+        payrollMetrics.time(PayrollMetrics.Stage.WRITE, () -> {
+            jdbcTemplate.batchUpdate(INSERT_PAYROLL, payrollRows);
+            jdbcTemplate.batchUpdate(INSERT_DEDUCTION, deductionRows);
+            if (!benefitRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_PAYROLL_BENEFIT, benefitRows);
+            }
+            payrollYtdService.accumulate(ytdChanges);
+        });
+        payrollMetrics.countWritten(payrollRows.size());
+
+        log.debug("Wrote {} payrolls, {} deductions and {} benefits", payrollRows.size(), deductionRows.size(), benefitRows.size());
+    }
+
+}
@@ -1,29 +1,43 @@
 package com.iodsky.sweldox.batch.payroll;
 
 
+import com.iodsky.sweldox.attendance.AttendanceService;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.common.LongHashSet;
 import com.iodsky.sweldox.payroll.core.Payroll;
 import com.iodsky.sweldox.payroll.core.PayrollBuilder;
 import com.iodsky.sweldox.payroll.core.PayrollCalculator;
 import com.iodsky.sweldox.payroll.core.PayrollConfiguration;
+import com.iodsky.sweldox.payroll.core.PayrollMetrics;
 import com.iodsky.sweldox.payroll.core.PayrollRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @StepScope
 @RequiredArgsConstructor
 @Slf4j
-public class PayrollitemProcessor implements ItemProcessor<Long, Payroll> {
+public class PayrollitemProcessor implements ItemProcessor<Long, Payroll>, ItemReadListener<Long>, StepExecutionListener {
 
     private final PayrollBuilder payrollBuilder;
     private final PayrollRepository payrollRepository;
     private final PayrollCalculator payrollCalculator;
+    private final AttendanceService attendanceService;
+    private final PayrollMetrics payrollMetrics;
 
     @Value("#{jobParameters['periodStartDate']}")
     private String periodStartDateStr;
@@ -36,6 +50,40 @@ public class PayrollitemProcessor implements ItemProcessor<Long, Payroll> {
 
     private PayrollConfiguration payrollConfiguration;
 
+    // Employees that already have a payroll for the period, loaded once when the step starts
+    private LongHashSet existingPayrollEmployeeIds = new LongHashSet();
+
+    // Employee IDs read since the last prefetch, i.e. the items of the chunk being built
+    private final List<Long> pendingEmployeeIds = new ArrayList<>();
+
+    // Attendance summaries of the current chunk, kept until the next chunk so retries and skip scans reuse them
+    private Map<Long, AttendanceSummary> prefetchedSummaries = new HashMap<>();
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        LocalDate periodStartDate = LocalDate.parse(periodStartDateStr);
+        LocalDate periodEndDate = LocalDate.parse(periodEndDateStr);
+
+        // Partition workers only need the payrolls of their own employee ID range
+        ExecutionContext context = stepExecution.getExecutionContext();
+        if (context.containsKey(EmployeeIdRangePartitioner.MIN_ID_KEY) && context.containsKey(EmployeeIdRangePartitioner.MAX_ID_KEY)) {
+            long minId = context.getLong(EmployeeIdRangePartitioner.MIN_ID_KEY);
+            long maxId = context.getLong(EmployeeIdRangePartitioner.MAX_ID_KEY);
+            existingPayrollEmployeeIds = LongHashSet.of(payrollRepository.findEmployeeIdsByPeriodAndEmployeeIdBetween(
+                    periodStartDate, periodEndDate, minId, maxId));
+            log.info("Found {} existing payrolls for period {} to {} and employees {} to {}",
+                    existingPayrollEmployeeIds.size(), periodStartDate, periodEndDate, minId, maxId);
+        } else {
+            existingPayrollEmployeeIds = LongHashSet.of(payrollRepository.findEmployeeIdsByPeriod(periodStartDate, periodEndDate));
+            log.info("Found {} existing payrolls for period {} to {}", existingPayrollEmployeeIds.size(), periodStartDate, periodEndDate);
+        }
+    }
+
+    @Override
+    public void afterRead(Long employeeId) {
+        pendingEmployeeIds.add(employeeId);
+    }
+
     @Override
     public Payroll process(Long employeeId) {
         LocalDate periodStartDate = LocalDate.parse(periodStartDateStr);
@@ -49,23 +97,46 @@ public class PayrollitemProcessor implements ItemProcessor<Long, Payroll> {
         }
 
         // Check if payroll already exists for this employee and period
-        boolean exists = payrollRepository.existsByEmployee_IdAndPeriodStartDateAndPeriodEndDate(
-                employeeId, periodStartDate, periodEndDate);
-
-        if (exists) {
+        if (existingPayrollEmployeeIds.contains(employeeId)) {
             log.warn("Payroll already exists for employee {} for period {} to {}. Skipping...",
                     employeeId, periodStartDate, periodEndDate);
+            payrollMetrics.count(PayrollMetrics.Outcome.EXISTING);
             return null;
         }
 
         try {
-            Payroll payroll = payrollBuilder.buildPayroll(employeeId, periodStartDate, periodEndDate, payDate, payrollConfiguration);
+            AttendanceSummary attendanceSummary = getAttendanceSummary(employeeId, periodStartDate, periodEndDate);
+            Payroll payroll = payrollBuilder.buildPayroll(employeeId, periodStartDate, periodEndDate, payDate,
+                    payrollConfiguration, attendanceSummary);
             log.debug("Successfully built payroll for employee {}", employeeId);
+            payrollMetrics.count(PayrollMetrics.Outcome.BUILT);
             return payroll;
         } catch (Exception ex) {
+            payrollMetrics.count(PayrollMetrics.Outcome.FAILED);
             log.error("Failed to process payroll for employee {}. Reason: {}", employeeId, ex.getMessage());
             throw new RuntimeException("Failed to process payroll for employee " + employeeId, ex);
         }
     }
 
+    /**
+     * Resolve the attendance summary of an employee from the chunk prefetch. The first item processed
+     * in a chunk summarizes the attendances of every employee read for that chunk in one query.
+     */
+    private AttendanceSummary getAttendanceSummary(Long employeeId, LocalDate periodStartDate, LocalDate periodEndDate) {
+        if (!prefetchedSummaries.containsKey(employeeId) && !pendingEmployeeIds.isEmpty()) {
+            prefetchedSummaries = payrollMetrics.time(PayrollMetrics.Stage.ATTENDANCE,
+                    () -> attendanceService.getEmployeeAttendanceSummaries(pendingEmployeeIds, periodStartDate, periodEndDate));
+            log.debug("Prefetched attendance summaries for {} employees", pendingEmployeeIds.size());
+            pendingEmployeeIds.clear();
+        }
+
+        AttendanceSummary attendanceSummary = prefetchedSummaries.get(employeeId);
+        if (attendanceSummary == null) {
+            return payrollMetrics.time(PayrollMetrics.Stage.ATTENDANCE,
+                    () -> attendanceService.getEmployeeAttendanceSummary(employeeId, periodStartDate, periodEndDate));
+        }
+
+        return attendanceSummary;
+    }
+
 }
@@ -0,0 +1,18 @@
+package com.iodsky.sweldox.batch.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportUploadResponse {
+    private UUID uploadId;
+    private String fileName;
+    private Long offset;
+}
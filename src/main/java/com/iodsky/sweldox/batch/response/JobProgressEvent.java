@@ -0,0 +1,26 @@
+package com.iodsky.sweldox.batch.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.batch.core.BatchStatus;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobProgressEvent {
+    private Long jobExecutionId;
+    private String jobName;
+    private BatchStatus status;
+    private Long readCount;
+    private Long writeCount;
+    private Long skipCount;
+    private Long totalItems;
+    private Double itemsPerSecond;
+    private Long etaSeconds;
+    private String exitDescription;
+}
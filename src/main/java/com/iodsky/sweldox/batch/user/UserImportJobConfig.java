@@ -1,11 +1,17 @@
 package com.iodsky.sweldox.batch.user;
 
+import com.iodsky.sweldox.batch.ImportFileUtil;
 import com.iodsky.sweldox.batch.ImportJobExecutionListener;
+import com.iodsky.sweldox.batch.ImportMode;
+import com.iodsky.sweldox.batch.JobProgressListener;
+import com.iodsky.sweldox.employee.EmployeeService;
 import com.iodsky.sweldox.security.user.User;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
@@ -13,6 +19,7 @@ import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.JpaItemWriter;
 import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
@@ -20,12 +27,13 @@ import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.PlatformTransactionManager;
 
-import java.nio.file.Paths;
-
 @Configuration
 @RequiredArgsConstructor
 public class UserImportJobConfig {
@@ -33,6 +41,7 @@ public class UserImportJobConfig {
     private final UserImportProcessor userImportProcessor;
     private final UserImportSkipListener skipListener;
     private final ImportJobExecutionListener jobCompletetionListener;
+    private final JobProgressListener jobProgressListener;
 
     @Value("${batch.upload.directory}")
     private String uploadDirectory;
@@ -44,7 +53,7 @@ public class UserImportJobConfig {
         return new FlatFileItemReaderBuilder<UserImportRecord>()
                 .linesToSkip(1)
                 .name("userCsvReader")
-                .resource(new FileSystemResource(Paths.get(uploadDirectory, fileName).toFile()))
+                .resource(ImportFileUtil.resource(uploadDirectory, fileName))
                 .delimited()
                 .delimiter(",")
                 .names(UserImportRecord.CSV_COLUMN_NAMES)
@@ -64,10 +73,42 @@ public class UserImportJobConfig {
                 .build();
     }
 
+    /**
+     * CPU bound pool hashing the imported passwords, shared by all user import runs.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${batch.password-hashing.concurrency}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        return executor;
+    }
+
+    /**
+     * Writer of the import step, inserting users through JPA, or upserting them with a JDBC batch
+     * in the {@link ImportMode#UPSERT} mode.
+     */
+    @Bean
+    @StepScope
+    public UserImportWriter userImportWriter(EmployeeService employeeService,
+                                             PasswordEncoder passwordEncoder,
+                                             ThreadPoolTaskExecutor passwordHashingExecutor,
+                                             JpaItemWriter<User> userWritier,
+                                             JdbcTemplate jdbcTemplate,
+                                             AuditorAware<User> auditorProvider,
+                                             @Value("#{jobParameters['" + ImportMode.JOB_PARAMETER + "']}") String mode) {
+        ItemWriter<User> delegate = ImportMode.of(mode) == ImportMode.UPSERT
+                ? new UserUpsertWriter(jdbcTemplate, auditorProvider)
+                : userWritier;
+        return new UserImportWriter(employeeService, passwordEncoder, passwordHashingExecutor, delegate);
+    }
+
     @Bean
     public Step userImportStep(ItemReader<UserImportRecord> userCsvReader,
                                    ItemProcessor<UserImportRecord, User> userProcessor,
-                                   JpaItemWriter<User> userWriter,
+                                   UserImportWriter userWriter,
                                    JobRepository jobRepository,
                                    PlatformTransactionManager transactionManager) {
         return new StepBuilder("importUsersStep", jobRepository)
@@ -79,6 +120,8 @@ public class UserImportJobConfig {
                 .skip(DataIntegrityViolationException.class)
                 .skipLimit(100)
                 .listener(skipListener)
+                .listener((StepExecutionListener) jobProgressListener)
+                .listener((ChunkListener) jobProgressListener)
                 .allowStartIfComplete(true)
                 .build();
     }
@@ -89,6 +132,7 @@ public class UserImportJobConfig {
                 .incrementer(new RunIdIncrementer())
                 .start(userImportStep)
                 .listener(jobCompletetionListener)
+                .listener(jobProgressListener)
                 .build();
     }
 
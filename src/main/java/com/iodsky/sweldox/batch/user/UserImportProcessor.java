@@ -1,14 +1,12 @@
 package com.iodsky.sweldox.batch.user;
 
 import com.iodsky.sweldox.employee.Employee;
-import com.iodsky.sweldox.employee.EmployeeService;
 import com.iodsky.sweldox.security.user.User;
 import com.iodsky.sweldox.security.user.UserRole;
 import com.iodsky.sweldox.security.user.UserRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
@@ -18,15 +16,16 @@ import java.util.Map;
 /**
  * ItemProcessor for transforming UserImportRecord to User entity with validation.
  * Uses in-memory caching to optimize database lookups for reference data.
+ * <p>
+ * The returned user is incomplete: its employee only carries the ID and its password is still plain text.
+ * {@link UserImportWriter} resolves the employees and hashes the passwords for the whole chunk.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserImportProcessor implements ItemProcessor<UserImportRecord, User> {
 
-    private final EmployeeService employeeService;
     private final UserRoleRepository userRoleRepository;
-    private final PasswordEncoder passwordEncoder;
 
     private Map<String, UserRole> userRoleCache;
 
@@ -41,10 +40,9 @@ public class UserImportProcessor implements ItemProcessor<UserImportRecord, User
                 .email(item.getEmail())
                 .build();
 
-        // Validate and set employee
+        // Validate and set employee reference, resolved by the writer
         long employeeId = Long.parseLong(item.getEmployeeId());
-        Employee employee = employeeService.getEmployeeById(employeeId);
-        user.setEmployee(employee);
+        user.setEmployee(Employee.builder().id(employeeId).build());
 
         // Validate and set role using cache
         UserRole role = userRoleCache.get(item.getRole());
@@ -53,9 +51,8 @@ public class UserImportProcessor implements ItemProcessor<UserImportRecord, User
         }
         user.setUserRole(role);
 
-        // Encode password
-        String password = passwordEncoder.encode(item.getPassword());
-        user.setPassword(password);
+        // Plain password, hashed by the writer
+        user.setPassword(item.getPassword());
 
         log.debug("Successfully processed user: {} {}", item.getEmployeeId(), item.getEmail());
         return user;
@@ -0,0 +1,84 @@
+package com.iodsky.sweldox.batch.user;
+
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.employee.EmployeeService;
+import com.iodsky.sweldox.security.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Completes a chunk of users from {@link UserImportProcessor} before handing it to the delegate writer.
+ * The chunk's employees are resolved with one query, and the passwords are hashed in parallel on the
+ * password hashing executor, each hash going back to the user at its position in the chunk.
+ * <p>
+ * A rolled back chunk is processed again before it is retried, so the passwords seen here are always plain text.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportWriter implements ItemWriter<User> {
+
+    private final EmployeeService employeeService;
+    private final PasswordEncoder passwordEncoder;
+    private final Executor passwordHashingExecutor;
+    private final ItemWriter<User> delegate;
+
+    @Override
+    public void write(Chunk<? extends User> chunk) throws Exception {
+        // Start hashing first, the employee query runs while the pool is busy
+        List<CompletableFuture<String>> hashes = new ArrayList<>(chunk.size());
+        for (User user : chunk) {
+            String password = user.getPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), passwordHashingExecutor));
+        }
+
+        try {
+            resolveEmployees(chunk);
+
+            int index = 0;
+            for (User user : chunk) {
+                user.setPassword(hashes.get(index++).join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            hashes.forEach(hash -> hash.cancel(false));
+        }
+
+        log.debug("Resolved employees and hashed passwords for {} users", chunk.size());
+        delegate.write(chunk);
+    }
+
+    private void resolveEmployees(Chunk<? extends User> chunk) {
+        List<Long> employeeIds = chunk.getItems().stream()
+                .map(user -> user.getEmployee().getId())
+                .distinct()
+                .toList();
+
+        Map<Long, Employee> employees = employeeService.getEmployeesByIds(employeeIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        for (User user : chunk) {
+            Long employeeId = user.getEmployee().getId();
+            Employee employee = employees.get(employeeId);
+            if (employee == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee " + employeeId + " not found");
+            }
+            user.setEmployee(employee);
+        }
+    }
+
+}
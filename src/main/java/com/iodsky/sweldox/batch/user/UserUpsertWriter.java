@@ -0,0 +1,69 @@
+package com.iodsky.sweldox.batch.user;
+
+import com.iodsky.sweldox.security.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes a chunk of imported users in the upsert mode with one JDBC batch of
+ * {@code INSERT ... ON CONFLICT DO UPDATE} statements. Users are matched on their email, and an
+ * existing user takes the employee, role and password of the file. When the chunk has several rows
+ * with the same email, the last one is written.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class UserUpsertWriter implements ItemWriter<User> {
+
+    private static final String UPSERT_USER = """
+            INSERT INTO users (id, employee_id, email, password, role_id,
+                               created_at, updated_at, created_by, last_modified_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (email) DO UPDATE SET
+                employee_id = EXCLUDED.employee_id,
+                password = EXCLUDED.password,
+                role_id = EXCLUDED.role_id,
+                updated_at = EXCLUDED.updated_at,
+                last_modified_by = EXCLUDED.last_modified_by,
+                version = users.version + 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<User> auditorProvider;
+
+    @Override
+    public void write(Chunk<? extends User> chunk) {
+        Timestamp now = Timestamp.from(Instant.now());
+        UUID auditor = auditorProvider.getCurrentAuditor().map(User::getId).orElse(null);
+
+        // A batch is sent as one multi-row statement, which may not update a row twice: keep the last row per email
+        Map<String, User> users = new LinkedHashMap<>();
+        for (User user : chunk) {
+            users.put(user.getEmail(), user);
+        }
+
+        List<Object[]> userRows = new ArrayList<>(users.size());
+        for (User user : users.values()) {
+            userRows.add(new Object[]{
+                    UUID.randomUUID(), user.getEmployee().getId(), user.getEmail(), user.getPassword(),
+                    user.getUserRole().getRole(), now, now, auditor, auditor
+            });
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_USER, userRows);
+
+        log.debug("Upserted {} users", userRows.size());
+    }
+
+}
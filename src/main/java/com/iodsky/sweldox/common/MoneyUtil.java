@@ -0,0 +1,87 @@
+package com.iodsky.sweldox.common;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between {@link BigDecimal} peso amounts and {@code long} centavos, and the
+ * rounding used by fixed point payroll arithmetic.
+ */
+@UtilityClass
+public class MoneyUtil {
+
+    public static final int CENTS_SCALE = 2;
+    public static final int RATE_SCALE = 4;
+
+    // Largest number of digits that always fits in a long
+    private static final int LONG_DIGITS = 18;
+
+    /**
+     * Convert an amount to centavos.
+     *
+     * @throws ArithmeticException if the amount has a fraction of a centavo or does not fit in a long
+     */
+    public static long toCents(BigDecimal amount) {
+        return toUnscaled(amount, CENTS_SCALE);
+    }
+
+    /**
+     * Convert a value to a whole number of units at the given scale, e.g. a scale 4 rate of 0.0500 to 500.
+     *
+     * @throws ArithmeticException if the value has more decimal places than the scale or does not fit in a long
+     */
+    public static long toUnscaled(BigDecimal value, int scale) {
+        return value.movePointRight(scale).longValueExact();
+    }
+
+    /**
+     * Smallest whole centavo amount greater than or equal to the given amount.
+     */
+    public static long ceilCents(BigDecimal amount) {
+        return amount.setScale(CENTS_SCALE, RoundingMode.CEILING).movePointRight(CENTS_SCALE).longValueExact();
+    }
+
+    /**
+     * Largest whole centavo amount less than or equal to the given amount.
+     */
+    public static long floorCents(BigDecimal amount) {
+        return amount.setScale(CENTS_SCALE, RoundingMode.FLOOR).movePointRight(CENTS_SCALE).longValueExact();
+    }
+
+    /**
+     * Whether the amount is a whole number of centavos that fits in a long.
+     */
+    public static boolean isWholeCents(BigDecimal amount) {
+        return isExact(amount, CENTS_SCALE);
+    }
+
+    /**
+     * Whether the value is a whole number of units at the given scale that fits in a long.
+     */
+    public static boolean isExact(BigDecimal value, int scale) {
+        return (value.scale() <= scale || value.stripTrailingZeros().scale() <= scale)
+                && value.precision() - value.scale() + scale <= LONG_DIGITS;
+    }
+
+    /**
+     * Divide and round half away from zero, the long counterpart of {@link RoundingMode#HALF_UP}.
+     *
+     * @param divisor must be positive
+     */
+    public static long roundHalfUpDiv(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+
+        if (remainder >= divisor - remainder) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+
+}
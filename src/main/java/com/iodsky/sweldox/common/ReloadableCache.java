@@ -0,0 +1,70 @@
+package com.iodsky.sweldox.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory snapshot of reference data that is loaded once on first use and rebuilt after
+ * {@link #invalidate()}. Readers never block once a snapshot exists.
+ * <p>
+ * Invalidation inside a transaction is deferred until the transaction commits, so a reload
+ * never picks up uncommitted or rolled back changes. The cache is local to this instance.
+ *
+ * @param <T> the immutable snapshot type
+ */
+public abstract class ReloadableCache<T> {
+
+    private final Object lock = new Object();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile T snapshot;
+
+    /**
+     * Load a fresh, immutable snapshot from the database.
+     */
+    protected abstract T load();
+
+    protected T get() {
+        T current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (lock) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+
+            long loadedGeneration = generation.get();
+            T loaded = load();
+
+            // Drop the result if an invalidation happened while loading
+            if (generation.get() == loadedGeneration) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+            return;
+        }
+
+        clear();
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+}
@@ -37,4 +37,13 @@ public class ResponseFactory {
         return new ResponseEntity<>(res, HttpStatus.CREATED);
     }
 
+    public static <T> ResponseEntity<ApiResponse<T>> accepted(String message, T data) {
+        ApiResponse<T> res = new ApiResponse<>(
+                true,
+                message,
+                data
+        );
+        return new ResponseEntity<>(res, HttpStatus.ACCEPTED);
+    }
+
 }
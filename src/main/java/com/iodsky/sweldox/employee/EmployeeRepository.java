@@ -1,5 +1,6 @@
 package com.iodsky.sweldox.employee;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -35,6 +36,28 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
        """)
     List<Long> findAllActiveEmployeeIds();
 
+    @Query("""
+        SELECT e.id
+        FROM Employee e
+        WHERE e.status NOT IN (
+        com.iodsky.sweldox.employee.Status.RESIGNED,
+         com.iodsky.sweldox.employee.Status.TERMINATED
+         )
+        AND e.id > :lastId AND e.id <= :maxId
+        ORDER BY e.id
+       """)
+    List<Long> findActiveEmployeeIdsAfter(Long lastId, Long maxId, Limit limit);
+
+    @Query("""
+        SELECT COUNT(e)
+        FROM Employee e
+        WHERE e.status NOT IN (
+        com.iodsky.sweldox.employee.Status.RESIGNED,
+         com.iodsky.sweldox.employee.Status.TERMINATED
+         )
+       """)
+    long countActiveEmployees();
+
     @Query("SELECT e FROM Employee  e WHERE e.deletedAt IS NULL AND e.supervisor.id = :supervisorId")
     List<Employee> findAllBySupervisor_Id(Long supervisorId);
 
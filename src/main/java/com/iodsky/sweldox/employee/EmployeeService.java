@@ -11,6 +11,7 @@ import com.iodsky.sweldox.payroll.benefit.BenefitService;
 import com.iodsky.sweldox.security.user.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -37,6 +38,8 @@ public class EmployeeService {
 
     @Transactional
     public Employee createEmployee(EmployeeRequest request) {
+        validateBenefitTypes(request);
+
         try {
             Employee employee = employeeMapper.toEntity(request);
 
@@ -92,7 +95,15 @@ public class EmployeeService {
         return employeeRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee " + id + " not found"));
     }
 
+    /**
+     * Employees with the given IDs in one query, in no particular order. IDs that do not exist are left out.
+     */
+    public List<Employee> getEmployeesByIds(Collection<Long> ids) {
+        return employeeRepository.findAllById(ids);
+    }
+
     public Employee updateEmployeeById(Long id, EmployeeRequest request) {
+        validateBenefitTypes(request);
         Employee employee = this.getEmployeeById(id);
 
         try {
@@ -150,6 +161,33 @@ public class EmployeeService {
         return employeeRepository.findAllActiveEmployeeIds();
     }
 
+    /**
+     * Next page of active employee IDs in ascending order, after {@code lastId} and up to {@code maxId} inclusive.
+     */
+    public List<Long> getActiveEmployeeIdsAfter(Long lastId, Long maxId, int limit) {
+        return employeeRepository.findActiveEmployeeIdsAfter(lastId, maxId, Limit.of(limit));
+    }
+
+    public long countActiveEmployees() {
+        return employeeRepository.countActiveEmployees();
+    }
+
+    /**
+     * An employee has at most one benefit per type, so reject benefit types that only differ in case or spacing.
+     */
+    private void validateBenefitTypes(EmployeeRequest request) {
+        if (request.getBenefits() == null) {
+            return;
+        }
+
+        Set<String> benefitTypes = new HashSet<>();
+        for (String benefitType : request.getBenefits().keySet()) {
+            if (!benefitTypes.add(benefitType.trim().toUpperCase())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duplicate benefit type " + benefitType);
+            }
+        }
+    }
+
     private DuplicateFieldException handleDataIntegrityViolation(DataIntegrityViolationException ex) {
         String message = "Field validation error";
         DuplicateField duplicateField = null;
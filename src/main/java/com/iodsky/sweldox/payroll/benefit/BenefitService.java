@@ -9,10 +9,10 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class BenefitService {
 
-    private final BenefitTypeRepository benefitTypeRepository;
+    private final BenefitTypeCache benefitTypeCache;
 
     public BenefitType getBenefitTypeById(String id) {
-        return benefitTypeRepository.findById(id)
+        return benefitTypeCache.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Benefit type " + id + " not found"));
     }
 
@@ -0,0 +1,36 @@
+package com.iodsky.sweldox.payroll.benefit;
+
+import com.iodsky.sweldox.common.ReloadableCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Benefit types keyed by ID, including soft deleted ones still referenced by existing benefits, loaded once and refreshed whenever {@link BenefitTypeService} changes one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BenefitTypeCache extends ReloadableCache<Map<String, BenefitType>> {
+
+    private final BenefitTypeRepository benefitTypeRepository;
+
+    @Override
+    protected Map<String, BenefitType> load() {
+        Map<String, BenefitType> benefitTypes = benefitTypeRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(BenefitType::getId, Function.identity()));
+
+        log.info("Loaded {} benefit types into cache", benefitTypes.size());
+        return benefitTypes;
+    }
+
+    public Optional<BenefitType> findById(String id) {
+        return Optional.ofNullable(get().get(id));
+    }
+
+}
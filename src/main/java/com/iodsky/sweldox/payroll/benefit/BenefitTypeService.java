@@ -17,6 +17,7 @@ import java.time.Instant;
 public class BenefitTypeService {
 
     private final BenefitTypeRepository benefitTypeRepository;
+    private final BenefitTypeCache benefitTypeCache;
 
     @Transactional
     public BenefitType createBenefitType(BenefitTypeRequest request) {
@@ -33,7 +34,9 @@ public class BenefitTypeService {
                 .type(request.getType())
                 .build();
 
-        return benefitTypeRepository.save(benefitType);
+        BenefitType saved = benefitTypeRepository.save(benefitType);
+        benefitTypeCache.invalidate();
+        return saved;
     }
 
     public Page<BenefitType> getAllBenefitTypes(int page, int limit) {
@@ -58,7 +61,9 @@ public class BenefitTypeService {
     public BenefitType updateBenefitType(String id, BenefitTypeRequest request) {
         BenefitType benefitType = getBenefitTypeById(id);
         benefitType.setType(request.getType());
-        return benefitTypeRepository.save(benefitType);
+        BenefitType saved = benefitTypeRepository.save(benefitType);
+        benefitTypeCache.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -66,5 +71,6 @@ public class BenefitTypeService {
         BenefitType benefitType = getBenefitTypeById(id);
         benefitType.setDeletedAt(Instant.now());
         benefitTypeRepository.save(benefitType);
+        benefitTypeCache.invalidate();
     }
 }
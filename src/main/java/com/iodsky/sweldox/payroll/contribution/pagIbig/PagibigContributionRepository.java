@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,4 +17,6 @@ public interface PagibigContributionRepository extends JpaRepository<PagibigCont
     @Query("SELECT p FROM PagibigContribution p WHERE p.effectiveDate <= :date AND p.deletedAt IS NULL ORDER BY p.effectiveDate DESC LIMIT 1")
     Optional<PagibigContribution> findLatestByEffectiveDate(@Param("date") LocalDate date);
 
+    List<PagibigContribution> findAllByDeletedAtIsNull();
+
 }
@@ -1,5 +1,6 @@
 package com.iodsky.sweldox.payroll.contribution.pagIbig;
 
+import com.iodsky.sweldox.payroll.core.PayrollConfigurationCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -19,6 +20,7 @@ import java.util.UUID;
 public class PagibigContributionService {
 
     private final PagibigContributionRepository pagibigContributionRepository;
+    private final PayrollConfigurationCache payrollConfigurationCache;
 
     @Transactional
     public PagibigContribution createPagibigContribution(PagibigContributionRequest request) {
@@ -38,7 +40,9 @@ public class PagibigContributionService {
                 .effectiveDate(request.getEffectiveDate())
                 .build();
 
-        return pagibigContributionRepository.save(contribution);
+        PagibigContribution saved = pagibigContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     public Page<PagibigContribution> getAllPagibigContributions(int page, int limit, LocalDate effectiveDate) {
@@ -88,7 +92,9 @@ public class PagibigContributionService {
         contribution.setMaxSalaryCap(request.getMaxSalaryCap());
         contribution.setEffectiveDate(request.getEffectiveDate());
 
-        return pagibigContributionRepository.save(contribution);
+        PagibigContribution saved = pagibigContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -96,5 +102,6 @@ public class PagibigContributionService {
         PagibigContribution contribution = getPagibigContributionById(id);
         contribution.setDeletedAt(Instant.now());
         pagibigContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
     }
 }
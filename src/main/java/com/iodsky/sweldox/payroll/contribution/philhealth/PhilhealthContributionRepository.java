@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +16,6 @@ public interface PhilhealthContributionRepository extends JpaRepository<Philheal
     @Query("SELECT p FROM PhilhealthContribution p WHERE p.effectiveDate <= :date AND p.deletedAt IS NULL ORDER BY p.effectiveDate DESC LIMIT 1")
     Optional<PhilhealthContribution> findLatestByEffectiveDate(@Param("date") LocalDate date);
 
+    List<PhilhealthContribution> findAllByDeletedAtIsNull();
+
 }
@@ -1,5 +1,6 @@
 package com.iodsky.sweldox.payroll.contribution.philhealth;
 
+import com.iodsky.sweldox.payroll.core.PayrollConfigurationCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -18,6 +19,7 @@ import java.time.LocalDate;
 public class PhilhealthContributionService {
 
     private final PhilhealthContributionRepository philhealthContributionRepository;
+    private final PayrollConfigurationCache payrollConfigurationCache;
 
     @Transactional
     public PhilhealthContribution createPhilhealthContribution(PhilhealthContributionRequest request) {
@@ -37,7 +39,9 @@ public class PhilhealthContributionService {
                 .effectiveDate(request.getEffectiveDate())
                 .build();
 
-        return philhealthContributionRepository.save(contribution);
+        PhilhealthContribution saved = philhealthContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     public Page<PhilhealthContribution> getAllPhilhealthContributions(int page, int limit, LocalDate effectiveDate) {
@@ -84,7 +88,9 @@ public class PhilhealthContributionService {
         contribution.setMaxSalaryCap(request.getMaxSalaryCap());
         contribution.setEffectiveDate(request.getEffectiveDate());
 
-        return philhealthContributionRepository.save(contribution);
+        PhilhealthContribution saved = philhealthContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -92,5 +98,6 @@ public class PhilhealthContributionService {
         PhilhealthContribution contribution = getPhilhealthContributionById(id);
         contribution.setDeletedAt(Instant.now());
         philhealthContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
     }
 }
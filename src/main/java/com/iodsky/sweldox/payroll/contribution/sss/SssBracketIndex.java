@@ -0,0 +1,142 @@
+package com.iodsky.sweldox.payroll.contribution.sss;
+
+import com.iodsky.sweldox.common.MoneyUtil;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compiled, immutable view of the salary brackets of one {@link SssContribution} version.
+ * Bracket boundaries are kept in sorted centavo arrays and looked up with a binary search.
+ * <p>
+ * Compiling validates the table: brackets must not overlap, must leave no gap between
+ * consecutive centavo amounts, and only the last bracket may be open ended.
+ */
+public final class SssBracketIndex {
+
+    @Getter
+    private final BigDecimal employeeRate;
+
+    private final long[] minCents;
+    private final long[] maxCents;
+    private final BigDecimal[] minSalaries;
+    private final BigDecimal[] maxSalaries;
+    private final BigDecimal[] mscs;
+
+    private SssBracketIndex(BigDecimal employeeRate, List<SssContribution.SalaryBracket> brackets) {
+        int size = brackets.size();
+
+        this.employeeRate = employeeRate;
+        this.minCents = new long[size];
+        this.maxCents = new long[size];
+        this.minSalaries = new BigDecimal[size];
+        this.maxSalaries = new BigDecimal[size];
+        this.mscs = new BigDecimal[size];
+
+        for (int i = 0; i < size; i++) {
+            SssContribution.SalaryBracket bracket = brackets.get(i);
+            minSalaries[i] = bracket.getMinSalary();
+            maxSalaries[i] = bracket.getMaxSalary();
+            mscs[i] = bracket.getMsc();
+            minCents[i] = MoneyUtil.ceilCents(bracket.getMinSalary());
+            maxCents[i] = bracket.getMaxSalary() == null ? Long.MAX_VALUE : MoneyUtil.floorCents(bracket.getMaxSalary());
+        }
+    }
+
+    /**
+     * Compile and validate the salary brackets of an SSS contribution version.
+     *
+     * @throws IllegalArgumentException if the brackets are missing, overlap or leave gaps
+     */
+    public static SssBracketIndex compile(SssContribution contribution) {
+        List<SssContribution.SalaryBracket> brackets = contribution.getSalaryBrackets();
+        if (brackets == null || brackets.isEmpty()) {
+            throw new IllegalArgumentException("SSS contribution must have at least one salary bracket");
+        }
+
+        for (SssContribution.SalaryBracket bracket : brackets) {
+            if (bracket.getMinSalary() == null || bracket.getMsc() == null) {
+                throw new IllegalArgumentException("SSS salary brackets must have a minimum salary and an MSC");
+            }
+            if (bracket.getMaxSalary() != null && bracket.getMaxSalary().compareTo(bracket.getMinSalary()) < 0) {
+                throw new IllegalArgumentException("SSS salary bracket starting at " + bracket.getMinSalary()
+                        + " has a maximum salary below its minimum");
+            }
+        }
+
+        List<SssContribution.SalaryBracket> sorted = brackets.stream()
+                .sorted(Comparator.comparing(SssContribution.SalaryBracket::getMinSalary))
+                .toList();
+
+        SssBracketIndex index = new SssBracketIndex(contribution.getEmployeeRate(), sorted);
+        index.validate();
+        return index;
+    }
+
+    private void validate() {
+        for (int i = 1; i < minCents.length; i++) {
+            if (maxSalaries[i - 1] == null) {
+                throw new IllegalArgumentException("Only the last SSS salary bracket may be open ended, but the bracket starting at "
+                        + minSalaries[i - 1] + " is followed by one starting at " + minSalaries[i]);
+            }
+            if (minCents[i] <= maxCents[i - 1]) {
+                throw new IllegalArgumentException("SSS salary brackets overlap: " + minSalaries[i - 1] + " - "
+                        + maxSalaries[i - 1] + " and " + minSalaries[i] + " - " + maxSalaries[i]);
+            }
+            if (minCents[i] > maxCents[i - 1] + 1) {
+                throw new IllegalArgumentException("SSS salary brackets leave a gap between "
+                        + maxSalaries[i - 1] + " and " + minSalaries[i]);
+            }
+        }
+    }
+
+    /**
+     * Index of the bracket containing the salary in centavos, or -1 if no bracket contains it.
+     */
+    public int indexOf(long salaryCents) {
+        // Last bracket whose minimum is at or below the salary
+        int position = Arrays.binarySearch(minCents, salaryCents);
+        int candidate = position >= 0 ? position : -position - 2;
+
+        if (candidate < 0 || salaryCents > maxCents[candidate]) {
+            return -1;
+        }
+        return candidate;
+    }
+
+    public BigDecimal getMsc(int bracketIndex) {
+        return mscs[bracketIndex];
+    }
+
+    public int size() {
+        return mscs.length;
+    }
+
+    /**
+     * Monthly salary credit of the bracket containing the salary.
+     *
+     * @throws IllegalArgumentException if no bracket contains the salary
+     */
+    public BigDecimal findMsc(BigDecimal salary) {
+        int bracketIndex = MoneyUtil.isWholeCents(salary) ? indexOf(MoneyUtil.toCents(salary)) : scan(salary);
+        if (bracketIndex < 0) {
+            throw new IllegalArgumentException("No SSS bracket found for salary: " + salary);
+        }
+        return mscs[bracketIndex];
+    }
+
+    // Fraction of a centavo salaries cannot use the centavo boundaries, compare the exact amounts instead
+    private int scan(BigDecimal salary) {
+        for (int i = 0; i < mscs.length; i++) {
+            if (salary.compareTo(minSalaries[i]) >= 0
+                    && (maxSalaries[i] == null || salary.compareTo(maxSalaries[i]) <= 0)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
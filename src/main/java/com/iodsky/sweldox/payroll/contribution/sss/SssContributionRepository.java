@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,4 +20,6 @@ public interface SssContributionRepository extends JpaRepository<SssContribution
     @Query("SELECT s FROM SssContribution s WHERE s.effectiveDate <= :date AND s.deletedAt IS NULL ORDER BY s.effectiveDate DESC")
     java.util.List<SssContribution> findAllByEffectiveDateBefore(@Param("date") LocalDate date);
 
+    List<SssContribution> findAllByDeletedAtIsNull();
+
 }
@@ -1,5 +1,6 @@
 package com.iodsky.sweldox.payroll.contribution.sss;
 
+import com.iodsky.sweldox.payroll.core.PayrollConfigurationCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -22,6 +23,7 @@ import java.util.stream.Collectors;
 public class SssContributionService {
 
     private final SssContributionRepository sssContributionRepository;
+    private final PayrollConfigurationCache payrollConfigurationCache;
 
     @Transactional
     public SssContribution createSssContribution(SssContributionRequest request) {
@@ -41,7 +43,11 @@ public class SssContributionService {
                 .effectiveDate(request.getEffectiveDate())
                 .build();
 
-        return sssContributionRepository.save(contribution);
+        validateSalaryBrackets(contribution);
+
+        SssContribution saved = sssContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     public Page<SssContribution> getAllSssContributions(
@@ -108,7 +114,11 @@ public class SssContributionService {
         contribution.setSalaryBrackets(brackets);
         contribution.setEffectiveDate(request.getEffectiveDate());
 
-        return sssContributionRepository.save(contribution);
+        validateSalaryBrackets(contribution);
+
+        SssContribution saved = sssContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -116,5 +126,14 @@ public class SssContributionService {
         SssContribution contribution = getSssContributionById(id);
         contribution.setDeletedAt(Instant.now());
         sssContributionRepository.save(contribution);
+        payrollConfigurationCache.invalidate();
+    }
+
+    private void validateSalaryBrackets(SssContribution contribution) {
+        try {
+            SssBracketIndex.compile(contribution);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
@@ -0,0 +1,132 @@
+package com.iodsky.sweldox.payroll.core;
+
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.common.MoneyUtil;
+import com.iodsky.sweldox.payroll.benefit.Benefit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.iodsky.sweldox.common.MoneyUtil.roundHalfUpDiv;
+
+/**
+ * Calculates payroll amounts on {@code long} centavos with the same HALF_UP rounding steps as
+ * {@link PayrollCalculator}, so both produce identical results without allocating intermediate
+ * {@link BigDecimal}s.
+ * <p>
+ * Inputs that are not whole centavos (or hundredths of an hour), arithmetic that would overflow,
+ * and salaries or incomes outside every bracket are left to {@link PayrollCalculator} by returning null.
+ */
+@Component
+public class FixedPointPayrollCalculator {
+
+    private static final long SEMI_MONTHLY_DIVISOR = 2;
+
+    // 1.25 at scale 2
+    private static final long OVERTIME_MULTIPLIER = 125;
+
+    // Centavos times a scale 4 rate are in millionths of a peso
+    private static final long RATE_UNITS = 10_000;
+
+    public PayrollCents calculate(BigDecimal hourlyRate, BigDecimal basicSalary,
+                                  AttendanceSummary attendanceSummary, List<Benefit> benefits, FixedPointRates rates) {
+        if (!isWholeCents(hourlyRate) || !isWholeCents(basicSalary)
+                || !isWholeCents(attendanceSummary.totalHours()) || !isWholeCents(attendanceSummary.overtimeHours())) {
+            return null;
+        }
+
+        try {
+            long totalBenefits = 0;
+            for (Benefit benefit : benefits) {
+                if (!isWholeCents(benefit.getAmount())) {
+                    return null;
+                }
+                totalBenefits = Math.addExact(totalBenefits, MoneyUtil.toCents(benefit.getAmount()));
+            }
+
+            return calculate(
+                    MoneyUtil.toCents(hourlyRate),
+                    MoneyUtil.toCents(basicSalary),
+                    MoneyUtil.toUnscaled(attendanceSummary.totalHours(), PayrollCents.HOURS_SCALE),
+                    MoneyUtil.toUnscaled(attendanceSummary.overtimeHours(), PayrollCents.HOURS_SCALE),
+                    totalBenefits,
+                    rates);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private PayrollCents calculate(long hourlyRate, long basicSalary, long totalHours, long overtimeHours,
+                                   long totalBenefits, FixedPointRates rates) {
+        long regularHours = Math.subtractExact(totalHours, overtimeHours);
+
+        // Scale 4 and scale 6 products, rounded once to centavos like the BigDecimal gross pay
+        long regularPay = Math.multiplyExact(hourlyRate, regularHours);
+        long overtimePay = Math.multiplyExact(Math.multiplyExact(hourlyRate, overtimeHours), OVERTIME_MULTIPLIER);
+        long grossPay = roundHalfUpDiv(Math.addExact(Math.multiplyExact(regularPay, 100), overtimePay), 10_000);
+
+        long sss = calculateSssDeduction(basicSalary, rates);
+        long philhealth = calculatePhilhealthDeduction(basicSalary, rates);
+        long pagibig = calculatePagibigDeduction(basicSalary, rates);
+
+        long statutoryDeductions = Math.addExact(Math.addExact(sss, philhealth), pagibig);
+        long taxableIncome = Math.subtractExact(grossPay, statutoryDeductions);
+        long withholdingTax = calculateWithholdingTax(taxableIncome, rates);
+        long totalDeductions = Math.addExact(withholdingTax, statutoryDeductions);
+        long netPay = Math.subtractExact(Math.addExact(grossPay, totalBenefits), totalDeductions);
+
+        return new PayrollCents(regularHours, regularPay, overtimePay, grossPay, totalBenefits,
+                sss, philhealth, pagibig, taxableIncome, withholdingTax, totalDeductions, netPay);
+    }
+
+    long calculatePhilhealthDeduction(long basicSalary, FixedPointRates rates) {
+        if (basicSalary <= rates.philhealthFloor) {
+            long employeeShare = roundHalfUpDiv(rates.philhealthFixed, 2);
+            return roundHalfUpDiv(employeeShare, SEMI_MONTHLY_DIVISOR);
+        }
+
+        long cappedSalary = Math.min(basicSalary, rates.philhealthCap);
+        long monthlyPremium = Math.multiplyExact(cappedSalary, rates.philhealthRate);
+        long employeeShare = roundHalfUpDiv(monthlyPremium, 2 * RATE_UNITS);
+
+        return roundHalfUpDiv(employeeShare, SEMI_MONTHLY_DIVISOR);
+    }
+
+    long calculatePagibigDeduction(long basicSalary, FixedPointRates rates) {
+        long monthlySalary = Math.min(basicSalary, rates.pagibigCap);
+        long rate = monthlySalary <= rates.pagibigLowIncomeThreshold ? rates.pagibigLowIncomeRate : rates.pagibigRate;
+
+        return roundHalfUpDiv(Math.multiplyExact(monthlySalary, rate), SEMI_MONTHLY_DIVISOR * RATE_UNITS);
+    }
+
+    long calculateSssDeduction(long basicSalary, FixedPointRates rates) {
+        int bracket = rates.sssBracketIndex.indexOf(basicSalary);
+        if (bracket < 0) {
+            // Let the BigDecimal calculator report the missing bracket
+            throw new ArithmeticException("No SSS bracket for salary");
+        }
+
+        return roundHalfUpDiv(Math.multiplyExact(rates.sssMscs[bracket], rates.sssRate), SEMI_MONTHLY_DIVISOR * RATE_UNITS);
+    }
+
+    long calculateWithholdingTax(long taxableIncome, FixedPointRates rates) {
+        int bracket = rates.incomeTaxTable.indexOf(taxableIncome);
+        if (bracket < 0) {
+            // Let the BigDecimal calculator report the missing bracket
+            throw new ArithmeticException("No income tax bracket for income");
+        }
+
+        long excessAmount = Math.max(Math.subtractExact(taxableIncome, rates.taxThresholds[bracket]), 0);
+        long monthlyTax = Math.addExact(
+                Math.multiplyExact(rates.taxBases[bracket], RATE_UNITS),
+                Math.multiplyExact(excessAmount, rates.taxRates[bracket]));
+
+        return roundHalfUpDiv(monthlyTax, SEMI_MONTHLY_DIVISOR * RATE_UNITS);
+    }
+
+    private static boolean isWholeCents(BigDecimal amount) {
+        return amount != null && MoneyUtil.isWholeCents(amount);
+    }
+
+}
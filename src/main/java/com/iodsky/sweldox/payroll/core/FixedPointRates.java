@@ -0,0 +1,101 @@
+package com.iodsky.sweldox.payroll.core;
+
+import com.iodsky.sweldox.common.MoneyUtil;
+import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContribution;
+import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContribution;
+import com.iodsky.sweldox.payroll.contribution.sss.SssBracketIndex;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxBracket;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxTable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Statutory configuration of one pay date compiled for {@link FixedPointPayrollCalculator}.
+ * Amounts are in centavos and rates in units of {@code 0.0001}.
+ */
+public final class FixedPointRates {
+
+    final long philhealthFloor;
+    final long philhealthCap;
+    final long philhealthFixed;
+    final long philhealthRate;
+
+    final long pagibigCap;
+    final long pagibigLowIncomeThreshold;
+    final long pagibigLowIncomeRate;
+    final long pagibigRate;
+
+    final SssBracketIndex sssBracketIndex;
+    final long[] sssMscs;
+    final long sssRate;
+
+    final IncomeTaxTable incomeTaxTable;
+    final long[] taxBases;
+    final long[] taxThresholds;
+    final long[] taxRates;
+
+    private FixedPointRates(PhilhealthContribution philhealth, PagibigContribution pagibig,
+                            SssBracketIndex sssBracketIndex, IncomeTaxTable incomeTaxTable) {
+        this.philhealthFloor = cents(philhealth.getMinSalaryFloor());
+        this.philhealthCap = cents(philhealth.getMaxSalaryCap());
+        this.philhealthFixed = cents(philhealth.getFixedContribution());
+        this.philhealthRate = rate(philhealth.getPremiumRate());
+
+        this.pagibigCap = cents(pagibig.getMaxSalaryCap());
+        this.pagibigLowIncomeThreshold = cents(pagibig.getLowIncomeThreshold());
+        this.pagibigLowIncomeRate = rate(pagibig.getLowIncomeEmployeeRate());
+        this.pagibigRate = rate(pagibig.getEmployeeRate());
+
+        this.sssBracketIndex = sssBracketIndex;
+        this.sssMscs = new long[sssBracketIndex.size()];
+        for (int i = 0; i < sssMscs.length; i++) {
+            sssMscs[i] = cents(sssBracketIndex.getMsc(i));
+        }
+        this.sssRate = rate(sssBracketIndex.getEmployeeRate());
+
+        List<IncomeTaxBracket> brackets = incomeTaxTable.getBrackets();
+        this.incomeTaxTable = incomeTaxTable;
+        this.taxBases = new long[brackets.size()];
+        this.taxThresholds = new long[brackets.size()];
+        this.taxRates = new long[brackets.size()];
+        for (int i = 0; i < brackets.size(); i++) {
+            taxBases[i] = cents(brackets.get(i).getBaseTax());
+            taxThresholds[i] = cents(brackets.get(i).getThreshold());
+            taxRates[i] = rate(brackets.get(i).getMarginalRate());
+        }
+    }
+
+    /**
+     * Compile the configuration, or return null if a value is missing or is not a whole number of
+     * centavos or rate units, in which case payrolls are calculated with {@link PayrollCalculator}.
+     */
+    public static FixedPointRates compile(PhilhealthContribution philhealth, PagibigContribution pagibig,
+                                          SssBracketIndex sssBracketIndex, IncomeTaxTable incomeTaxTable) {
+        if (sssBracketIndex == null) {
+            return null;
+        }
+
+        try {
+            return new FixedPointRates(philhealth, pagibig, sssBracketIndex, incomeTaxTable);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return unscaled(amount, MoneyUtil.CENTS_SCALE);
+    }
+
+    private static long rate(BigDecimal rate) {
+        return unscaled(rate, MoneyUtil.RATE_SCALE);
+    }
+
+    private static long unscaled(BigDecimal value, int scale) {
+        if (value == null || !MoneyUtil.isExact(value, scale)) {
+            throw new ArithmeticException("Value not representable at scale " + scale + ": " + value);
+        }
+        return MoneyUtil.toUnscaled(value, scale);
+    }
+
+}
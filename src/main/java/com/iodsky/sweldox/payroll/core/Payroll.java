@@ -6,6 +6,7 @@ import com.iodsky.sweldox.employee.Employee;
 import com.iodsky.sweldox.payroll.deduction.Deduction;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -30,16 +31,21 @@ public class Payroll extends BaseModel {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    // Lazy so listing payrolls does not load every employee with its eager associations;
+    // reading the employee ID does not initialize the proxy
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id")
     @JsonIgnore
     private Employee employee;
 
+    // Batch fetched: the lines of a whole page of payrolls load in one query per collection
     @OneToMany(mappedBy = "payroll", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JsonIgnore
     private List<Deduction> deductions;
 
     @OneToMany(mappedBy = "payroll", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JsonIgnore
     private List<PayrollBenefit> benefits;
 
@@ -75,4 +81,7 @@ public class Payroll extends BaseModel {
     @Column(name = "net_pay")
     private BigDecimal netPay;
 
+    // Set when an attendance of the period changes after generation, cleared by recomputation
+    private boolean stale;
+
 }
@@ -27,7 +27,7 @@ public class PayrollBenefit extends BaseModel {
     @JsonIgnore
     private Payroll payroll;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "benefit_type_id")
     private BenefitType benefitType;
 
@@ -1,13 +1,15 @@
 package com.iodsky.sweldox.payroll.core;
 
-import com.iodsky.sweldox.attendance.Attendance;
 import com.iodsky.sweldox.attendance.AttendanceService;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.common.MoneyUtil;
 import com.iodsky.sweldox.employee.Employee;
 import com.iodsky.sweldox.employee.EmployeeService;
 import com.iodsky.sweldox.payroll.benefit.Benefit;
 import com.iodsky.sweldox.payroll.deduction.Deduction;
-import com.iodsky.sweldox.payroll.deduction.DeductionTypeRepository;
+import com.iodsky.sweldox.payroll.deduction.DeductionTypeCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -22,97 +24,99 @@ public class PayrollBuilder {
 
     private final EmployeeService employeeService;
     private final AttendanceService attendanceService;
-    private final DeductionTypeRepository deductionTypeRepository;
+    private final DeductionTypeCache deductionTypeCache;
     private final PayrollCalculator payrollCalculator;
+    private final FixedPointPayrollCalculator fixedPointPayrollCalculator;
+    private final PayrollMetrics payrollMetrics;
+
+    @Value("${payroll.calculator.fixed-point.enabled:true}")
+    private boolean fixedPointEnabled;
 
     public Payroll buildPayroll(Long employeeId, LocalDate periodStart, LocalDate periodEnd, LocalDate payDate) {
-        // Build context with all necessary data
-        PayrollContext context = buildContext(employeeId, periodStart, periodEnd, payDate);
+        PayrollConfiguration config = payrollCalculator.loadConfiguration(payDate);
 
-        // Build and return payroll entity
-        return buildPayrollFromContext(context, payDate);
+        return buildPayroll(employeeId, periodStart, periodEnd, payDate, config);
     }
 
     public Payroll buildPayroll(Long employeeId, LocalDate periodStart, LocalDate periodEnd, LocalDate payDate, PayrollConfiguration config) {
-        PayrollContext context = buildContext(employeeId, periodStart, periodEnd, payDate, config);
+        AttendanceSummary attendanceSummary = payrollMetrics.time(PayrollMetrics.Stage.ATTENDANCE,
+                () -> attendanceService.getEmployeeAttendanceSummary(employeeId, periodStart, periodEnd));
 
-        return buildPayrollFromContext(context, payDate);
+        return buildPayroll(employeeId, periodStart, periodEnd, payDate, config, attendanceSummary);
     }
 
-    private PayrollContext buildContext(Long employeeId, LocalDate periodStart, LocalDate periodEnd, LocalDate payDate) {
-        Employee employee = employeeService.getEmployeeById(employeeId);
-        List<Attendance> attendances = attendanceService.getEmployeeAttendances(employeeId, periodStart, periodEnd);
-        List<Benefit> benefits = employee.getBenefits();
-
-        BigDecimal basicSalary = employee.getBasicSalary();
-        BigDecimal hourlyRate = employee.getHourlyRate();
-
-        // Calculate hours
-        BigDecimal totalHours = payrollCalculator.calculateTotalHours(attendances);
-        BigDecimal overtimeHours = payrollCalculator.calculateOvertimeHours(attendances);
-        BigDecimal regularHours = totalHours.subtract(overtimeHours);
-
-        // Calculate pay
-        BigDecimal regularPay = payrollCalculator.calculateRegularPay(hourlyRate, regularHours);
-        BigDecimal overtimePay = payrollCalculator.calculateOvertimePay(hourlyRate, overtimeHours);
-        BigDecimal grossPay = payrollCalculator.calculateGrossPay(regularPay, overtimePay);
+    /**
+     * Build a payroll from an attendance summary that was already loaded for the period,
+     * e.g. prefetched in bulk for a whole chunk of employees.
+     */
+    public Payroll buildPayroll(Long employeeId, LocalDate periodStart, LocalDate periodEnd, LocalDate payDate,
+                                PayrollConfiguration config, AttendanceSummary attendanceSummary) {
+        Employee employee = payrollMetrics.time(PayrollMetrics.Stage.EMPLOYEE, () -> employeeService.getEmployeeById(employeeId));
+
+        return payrollMetrics.time(PayrollMetrics.Stage.CALCULATION, () -> {
+            PayrollContext context = buildContext(employeeId, employee, periodStart, periodEnd, config, attendanceSummary);
+            return buildPayrollFromContext(context, payDate);
+        });
+    }
 
-        // Calculate benefits
-        BigDecimal totalBenefits = payrollCalculator.calculateTotalBenefits(benefits);
+    /**
+     * Build payroll context using the configuration in force on the pay date. Amounts are calculated
+     * in centavos when possible and with {@link PayrollCalculator} otherwise; both give the same results.
+     */
+    private PayrollContext buildContext(Long employeeId, Employee employee, LocalDate periodStart, LocalDate periodEnd,
+                                        PayrollConfiguration config, AttendanceSummary attendanceSummary) {
+        PayrollContext.PayrollContextBuilder context = PayrollContext.builder()
+                .employeeId(employeeId)
+                .employee(employee)
+                .periodStartDate(periodStart)
+                .periodEndDate(periodEnd)
+                .attendanceSummary(attendanceSummary);
 
-        // Calculate statutory deductions (using payDate for configuration lookup)
-        BigDecimal sss = payrollCalculator.calculateSssDeduction(basicSalary, payDate);
-        BigDecimal philhealth = payrollCalculator.calculatePhilhealthDeduction(basicSalary, payDate);
-        BigDecimal pagibig = payrollCalculator.calculatePagibigDeduction(basicSalary, payDate);
+        if (fixedPointEnabled && config.getFixedPointRates() != null) {
+            PayrollCents cents = fixedPointPayrollCalculator.calculate(employee.getHourlyRate(), employee.getBasicSalary(),
+                    attendanceSummary, employee.getBenefits(), config.getFixedPointRates());
 
-        // Calculate tax
-        BigDecimal statutoryDeductions = payrollCalculator.calculateTotalStatutoryDeductions(sss, philhealth, pagibig);
-        BigDecimal taxableIncome = payrollCalculator.calculateTaxableIncome(grossPay, statutoryDeductions);
-        BigDecimal withholdingTax = payrollCalculator.calculateWithholdingTax(taxableIncome, payDate);
-        BigDecimal totalDeductions = withholdingTax.add(statutoryDeductions).setScale(2, RoundingMode.HALF_UP);
+            if (cents != null) {
+                return buildContextFromCents(context, employee, attendanceSummary, cents);
+            }
+        }
 
-        // Calculate net pay
-        BigDecimal netPay = payrollCalculator.calculateNetPay(grossPay, totalBenefits, statutoryDeductions, withholdingTax);
+        return calculateContext(context, employee, config, attendanceSummary);
+    }
 
-        return PayrollContext.builder()
-                .employeeId(employeeId)
-                .employee(employee)
-                .attendances(attendances)
-                .benefits(benefits)
-                .hourlyRate(hourlyRate)
-                .basicSalary(basicSalary)
-                .totalHours(totalHours)
-                .overtimeHours(overtimeHours)
-                .regularHours(regularHours)
-                .regularPay(regularPay)
-                .overtimePay(overtimePay)
-                .grossPay(grossPay)
-                .totalBenefits(totalBenefits)
-                .sss(sss)
-                .philhealth(philhealth)
-                .pagibig(pagibig)
-                .taxableIncome(taxableIncome)
-                .withholdingTax(withholdingTax)
-                .totalDeductions(totalDeductions)
-                .netPay(netPay)
+    private PayrollContext buildContextFromCents(PayrollContext.PayrollContextBuilder context, Employee employee,
+                                                 AttendanceSummary attendanceSummary, PayrollCents cents) {
+        return context
+                .benefits(employee.getBenefits())
+                .hourlyRate(employee.getHourlyRate())
+                .basicSalary(employee.getBasicSalary())
+                .totalHours(attendanceSummary.totalHours())
+                .overtimeHours(attendanceSummary.overtimeHours())
+                .regularHours(BigDecimal.valueOf(cents.regularHours(), PayrollCents.HOURS_SCALE))
+                .regularPay(BigDecimal.valueOf(cents.regularPay(), PayrollCents.REGULAR_PAY_SCALE))
+                .overtimePay(BigDecimal.valueOf(cents.overtimePay(), PayrollCents.OVERTIME_PAY_SCALE))
+                .grossPay(MoneyUtil.fromCents(cents.grossPay()))
+                .totalBenefits(MoneyUtil.fromCents(cents.totalBenefits()))
+                .sss(MoneyUtil.fromCents(cents.sss()))
+                .philhealth(MoneyUtil.fromCents(cents.philhealth()))
+                .pagibig(MoneyUtil.fromCents(cents.pagibig()))
+                .taxableIncome(MoneyUtil.fromCents(cents.taxableIncome()))
+                .withholdingTax(MoneyUtil.fromCents(cents.withholdingTax()))
+                .totalDeductions(MoneyUtil.fromCents(cents.totalDeductions()))
+                .netPay(MoneyUtil.fromCents(cents.netPay()))
                 .build();
     }
 
-    /**
-     * Build payroll context using pre-loaded configuration to avoid repeated database queries.
-     * Use this method when processing multiple payrolls for the same period.
-     */
-    private PayrollContext buildContext(Long employeeId, LocalDate periodStart, LocalDate periodEnd, LocalDate payDate, PayrollConfiguration config) {
-        Employee employee = employeeService.getEmployeeById(employeeId);
-        List<Attendance> attendances = attendanceService.getEmployeeAttendances(employeeId, periodStart, periodEnd);
+    private PayrollContext calculateContext(PayrollContext.PayrollContextBuilder context, Employee employee,
+                                            PayrollConfiguration config, AttendanceSummary attendanceSummary) {
         List<Benefit> benefits = employee.getBenefits();
 
         BigDecimal basicSalary = employee.getBasicSalary();
         BigDecimal hourlyRate = employee.getHourlyRate();
 
         // Calculate hours
-        BigDecimal totalHours = payrollCalculator.calculateTotalHours(attendances);
-        BigDecimal overtimeHours = payrollCalculator.calculateOvertimeHours(attendances);
+        BigDecimal totalHours = attendanceSummary.totalHours();
+        BigDecimal overtimeHours = attendanceSummary.overtimeHours();
         BigDecimal regularHours = totalHours.subtract(overtimeHours);
 
         // Calculate pay
@@ -124,23 +128,20 @@ public class PayrollBuilder {
         BigDecimal totalBenefits = payrollCalculator.calculateTotalBenefits(benefits);
 
         // Calculate statutory deductions using preloaded configuration
-        BigDecimal sss = payrollCalculator.calculateSssDeduction(basicSalary, payDate);
+        BigDecimal sss = payrollCalculator.calculateSssDeduction(basicSalary, config);
         BigDecimal philhealth = payrollCalculator.calculatePhilhealthDeduction(basicSalary, config.getPhilhealthContribution());
         BigDecimal pagibig = payrollCalculator.calculatePagibigDeduction(basicSalary, config.getPagibigContribution());
 
         // Calculate tax using pre-loaded configuration
         BigDecimal statutoryDeductions = payrollCalculator.calculateTotalStatutoryDeductions(sss, philhealth, pagibig);
         BigDecimal taxableIncome = payrollCalculator.calculateTaxableIncome(grossPay, statutoryDeductions);
-        BigDecimal withholdingTax = payrollCalculator.calculateWithholdingTax(taxableIncome, config.getIncomeTaxBrackets());
+        BigDecimal withholdingTax = payrollCalculator.calculateWithholdingTax(taxableIncome, config.getIncomeTaxTable());
         BigDecimal totalDeductions = withholdingTax.add(statutoryDeductions).setScale(2, RoundingMode.HALF_UP);
 
         // Calculate net pay
         BigDecimal netPay = payrollCalculator.calculateNetPay(grossPay, totalBenefits, statutoryDeductions, withholdingTax);
 
-        return PayrollContext.builder()
-                .employeeId(employeeId)
-                .employee(employee)
-                .attendances(attendances)
+        return context
                 .benefits(benefits)
                 .hourlyRate(hourlyRate)
                 .basicSalary(basicSalary)
@@ -170,21 +171,17 @@ public class PayrollBuilder {
         // Build payroll benefits
         List<PayrollBenefit> payrollBenefits = buildPayrollBenefits(context.getBenefits());
 
-        // Determine period dates from attendances
-        LocalDate periodStartDate = context.getAttendances().isEmpty() ? null :
-                context.getAttendances().getFirst().getDate();
-        LocalDate periodEndDate = context.getAttendances().isEmpty() ? null :
-                context.getAttendances().getLast().getDate();
+        AttendanceSummary attendanceSummary = context.getAttendanceSummary();
 
         // Build payroll entity
         Payroll payroll = Payroll.builder()
                 .employee(context.getEmployee())
                 .monthlyRate(context.getBasicSalary())
                 .dailyRate(dailyRate)
-                .periodStartDate(periodStartDate)
-                .periodEndDate(periodEndDate)
+                .periodStartDate(context.getPeriodStartDate())
+                .periodEndDate(context.getPeriodEndDate())
                 .payDate(payDate)
-                .daysWorked(context.getAttendances().size())
+                .daysWorked(attendanceSummary.daysWorked().intValue())
                 .overtime(context.getOvertimeHours())
                 .grossPay(context.getGrossPay())
                 .benefits(payrollBenefits)
@@ -204,22 +201,22 @@ public class PayrollBuilder {
         List<Deduction> deductions = new ArrayList<>();
 
         deductions.add(Deduction.builder()
-                .deductionType(deductionTypeRepository.findByCode("SSS").orElseThrow())
+                .deductionType(deductionTypeCache.getByCode("SSS"))
                 .amount(context.getSss())
                 .build());
 
         deductions.add(Deduction.builder()
-                .deductionType(deductionTypeRepository.findByCode("PHIC").orElseThrow())
+                .deductionType(deductionTypeCache.getByCode("PHIC"))
                 .amount(context.getPhilhealth())
                 .build());
 
         deductions.add(Deduction.builder()
-                .deductionType(deductionTypeRepository.findByCode("HDMF").orElseThrow())
+                .deductionType(deductionTypeCache.getByCode("HDMF"))
                 .amount(context.getPagibig())
                 .build());
 
         deductions.add(Deduction.builder()
-                .deductionType(deductionTypeRepository.findByCode("TAX").orElseThrow())
+                .deductionType(deductionTypeCache.getByCode("TAX"))
                 .amount(context.getWithholdingTax())
                 .build());
 
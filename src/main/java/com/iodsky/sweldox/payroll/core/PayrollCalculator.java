@@ -3,13 +3,11 @@ package com.iodsky.sweldox.payroll.core;
 import com.iodsky.sweldox.attendance.Attendance;
 import com.iodsky.sweldox.payroll.benefit.Benefit;
 import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContribution;
-import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContributionRepository;
 import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContribution;
-import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContributionRepository;
+import com.iodsky.sweldox.payroll.contribution.sss.SssBracketIndex;
 import com.iodsky.sweldox.payroll.contribution.sss.SssContribution;
-import com.iodsky.sweldox.payroll.contribution.sss.SssContributionRepository;
 import com.iodsky.sweldox.payroll.tax.IncomeTaxBracket;
-import com.iodsky.sweldox.payroll.tax.IncomeTaxBracketRepository;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxTable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -24,53 +22,18 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PayrollCalculator {
 
-    private final PhilhealthContributionRepository philhealthContributionRepository;
-    private final PagibigContributionRepository pagibigContributionRepository;
-    private final SssContributionRepository sssContributionRepository;
-    private final IncomeTaxBracketRepository incomeTaxBracketRepository;
+    private final PayrollConfigurationCache payrollConfigurationCache;
+    private final PayrollMetrics payrollMetrics;
 
     private static final BigDecimal SEMI_MONTHLY_DIVISOR = BigDecimal.valueOf(2);
     private static final BigDecimal OVERTIME_MULTIPLIER = BigDecimal.valueOf(1.25);
     private static final int STANDARD_WORK_HOURS = 8;
 
+    /**
+     * Resolve the statutory configuration in force on the given date from the in-memory timeline.
+     */
     public PayrollConfiguration loadConfiguration(LocalDate payrollDate) {
-        PhilhealthContribution philhealth = philhealthContributionRepository
-                .findLatestByEffectiveDate(payrollDate)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "PhilHealth contribution configuration not found for date: " + payrollDate
-                ));
-
-        PagibigContribution pagibig = pagibigContributionRepository
-                .findLatestByEffectiveDate(payrollDate)
-            .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Pag-IBIG contribution configuration not found for date: " + payrollDate
-                ));
-
-        SssContribution sssContribution = sssContributionRepository
-                .findLatestByEffectiveDate(payrollDate)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "SSS contribution configuration not found for date: " + payrollDate
-                ));
-
-        List<IncomeTaxBracket> taxBrackets = incomeTaxBracketRepository
-                .findAllByEffectiveDate(payrollDate);
-
-        if (taxBrackets.isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.NOT_FOUND,
-                    "Income tax bracket configurations not found for date: " + payrollDate
-            );
-        }
-
-        return PayrollConfiguration.builder()
-                .philhealthContribution(philhealth)
-                .pagibigContribution(pagibig)
-                .sssContribution(sssContribution)
-                .incomeTaxBrackets(taxBrackets)
-                .build();
+        return payrollMetrics.time(PayrollMetrics.Stage.CONFIGURATION, () -> payrollConfigurationCache.getConfiguration(payrollDate));
     }
 
     public BigDecimal calculateTotalHours(List<Attendance> attendances) {
@@ -110,14 +73,7 @@ public class PayrollCalculator {
     }
 
     public BigDecimal calculatePhilhealthDeduction(BigDecimal basicSalary, LocalDate payrollDate) {
-        PhilhealthContribution config = philhealthContributionRepository
-                .findLatestByEffectiveDate(payrollDate)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "PhilHealth contribution configuration not found for date: " + payrollDate
-                ));
-
-        return calculatePhilhealthDeduction(basicSalary, config);
+        return calculatePhilhealthDeduction(basicSalary, loadConfiguration(payrollDate).getPhilhealthContribution());
     }
 
     public BigDecimal calculatePhilhealthDeduction(BigDecimal basicSalary, PhilhealthContribution config) {
@@ -136,14 +92,7 @@ public class PayrollCalculator {
     }
 
     public BigDecimal calculatePagibigDeduction(BigDecimal basicSalary, LocalDate payrollDate) {
-        PagibigContribution config = pagibigContributionRepository
-                .findLatestByEffectiveDate(payrollDate)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Pag-IBIG contribution configuration not found for date: " + payrollDate
-                ));
-
-        return calculatePagibigDeduction(basicSalary, config);
+        return calculatePagibigDeduction(basicSalary, loadConfiguration(payrollDate).getPagibigContribution());
     }
 
     public BigDecimal calculatePagibigDeduction(BigDecimal basicSalary, PagibigContribution config) {
@@ -161,14 +110,25 @@ public class PayrollCalculator {
     }
 
     public BigDecimal calculateSssDeduction(BigDecimal basicSalary, LocalDate payrollDate) {
-        SssContribution config = sssContributionRepository
-                .findLatestByEffectiveDate(payrollDate)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "SSS contribution configuration not found for date: " + payrollDate
-                ));
+        return calculateSssDeduction(basicSalary, loadConfiguration(payrollDate));
+    }
+
+    /**
+     * Calculate the SSS deduction with the compiled bracket index of the configuration,
+     * falling back to the bracket list when the stored table could not be compiled.
+     */
+    public BigDecimal calculateSssDeduction(BigDecimal basicSalary, PayrollConfiguration config) {
+        if (config.getSssBracketIndex() == null) {
+            return calculateSssDeduction(basicSalary, config.getSssContribution());
+        }
+
+        return calculateSssDeduction(basicSalary, config.getSssBracketIndex());
+    }
+
+    public BigDecimal calculateSssDeduction(BigDecimal basicSalary, SssBracketIndex sssBracketIndex) {
+        BigDecimal monthlyContribution = sssBracketIndex.findMsc(basicSalary).multiply(sssBracketIndex.getEmployeeRate());
 
-        return calculateSssDeduction(basicSalary, config);
+        return monthlyContribution.divide(SEMI_MONTHLY_DIVISOR, 2, RoundingMode.HALF_UP);
     }
 
     public BigDecimal calculateSssDeduction(BigDecimal basicSalary, SssContribution sssContribution) {
@@ -183,34 +143,26 @@ public class PayrollCalculator {
     }
 
     public BigDecimal calculateWithholdingTax(BigDecimal taxableIncome, LocalDate payrollDate) {
-        IncomeTaxBracket bracket = incomeTaxBracketRepository
-                .findByIncomeAndEffectiveDate(taxableIncome, payrollDate);
+        return calculateWithholdingTax(taxableIncome, loadConfiguration(payrollDate).getIncomeTaxTable());
+    }
+
+    public BigDecimal calculateWithholdingTax(BigDecimal taxableIncome, List<IncomeTaxBracket> taxBrackets) {
+        return calculateWithholdingTax(taxableIncome, IncomeTaxTable.compile(taxBrackets));
+    }
+
+    public BigDecimal calculateWithholdingTax(BigDecimal taxableIncome, IncomeTaxTable incomeTaxTable) {
+        IncomeTaxBracket bracket = incomeTaxTable.find(taxableIncome);
 
         if (bracket == null) {
             throw new ResponseStatusException(
                     HttpStatus.NOT_FOUND,
-                    "Income tax bracket not found for income: " + taxableIncome + " and date: " + payrollDate
+                    "Income tax bracket not found for income: " + taxableIncome
             );
         }
 
         return calculateWithholdingTaxFromBracket(taxableIncome, bracket);
     }
 
-
-    public BigDecimal calculateWithholdingTax(BigDecimal taxableIncome, List<IncomeTaxBracket> taxBrackets) {
-        IncomeTaxBracket bracket = taxBrackets.stream()
-                .filter(b -> taxableIncome.compareTo(b.getMinIncome()) >= 0
-                        && (b.getMaxIncome() == null || taxableIncome.compareTo(b.getMaxIncome()) <= 0))
-                .findFirst()
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Income tax bracket not found for income: " + taxableIncome
-                ));
-
-        return calculateWithholdingTaxFromBracket(taxableIncome, bracket);
-    }
-
-
     private BigDecimal calculateWithholdingTaxFromBracket(BigDecimal taxableIncome, IncomeTaxBracket bracket) {
         BigDecimal excessAmount = taxableIncome.subtract(bracket.getThreshold()).max(BigDecimal.ZERO);
         BigDecimal excessTax = excessAmount.multiply(bracket.getMarginalRate());
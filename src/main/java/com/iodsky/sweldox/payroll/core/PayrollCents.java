@@ -0,0 +1,27 @@
+package com.iodsky.sweldox.payroll.core;
+
+/**
+ * Payroll amounts calculated by {@link FixedPointPayrollCalculator}. Money is in centavos and
+ * hours in hundredths of an hour, except regular and overtime pay which keep the exact scale 4
+ * and scale 6 products that {@link PayrollCalculator} produces before rounding the gross pay.
+ */
+public record PayrollCents(
+        long regularHours,
+        long regularPay,
+        long overtimePay,
+        long grossPay,
+        long totalBenefits,
+        long sss,
+        long philhealth,
+        long pagibig,
+        long taxableIncome,
+        long withholdingTax,
+        long totalDeductions,
+        long netPay
+) {
+
+    public static final int HOURS_SCALE = 2;
+    public static final int REGULAR_PAY_SCALE = 4;
+    public static final int OVERTIME_PAY_SCALE = 6;
+
+}
@@ -2,8 +2,10 @@ package com.iodsky.sweldox.payroll.core;
 
 import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContribution;
 import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContribution;
+import com.iodsky.sweldox.payroll.contribution.sss.SssBracketIndex;
 import com.iodsky.sweldox.payroll.contribution.sss.SssContribution;
 import com.iodsky.sweldox.payroll.tax.IncomeTaxBracket;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxTable;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -19,5 +21,9 @@ public class PayrollConfiguration {
     private PhilhealthContribution philhealthContribution;
     private PagibigContribution pagibigContribution;
     private SssContribution sssContribution;
+    // Compiled brackets of sssContribution, null if the stored table failed validation
+    private SssBracketIndex sssBracketIndex;
     private List<IncomeTaxBracket> incomeTaxBrackets;
+    private IncomeTaxTable incomeTaxTable;
+    private FixedPointRates fixedPointRates;
 }
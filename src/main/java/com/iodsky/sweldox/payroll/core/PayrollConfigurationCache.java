@@ -0,0 +1,148 @@
+package com.iodsky.sweldox.payroll.core;
+
+import com.iodsky.sweldox.common.ReloadableCache;
+import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContribution;
+import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContributionRepository;
+import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContribution;
+import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContributionRepository;
+import com.iodsky.sweldox.payroll.contribution.sss.SssBracketIndex;
+import com.iodsky.sweldox.payroll.contribution.sss.SssContribution;
+import com.iodsky.sweldox.payroll.contribution.sss.SssContributionRepository;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxBracket;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxBracketRepository;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Timeline of every active contribution and income tax configuration, indexed by effective date.
+ * The configuration in force on a date is the latest version effective on or before it, so payroll
+ * computations resolve their configuration without any I/O.
+ * <p>
+ * The contribution and tax bracket services invalidate the cache whenever a configuration changes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollConfigurationCache extends ReloadableCache<PayrollConfigurationCache.Timeline> {
+
+    private final PhilhealthContributionRepository philhealthContributionRepository;
+    private final PagibigContributionRepository pagibigContributionRepository;
+    private final SssContributionRepository sssContributionRepository;
+    private final IncomeTaxBracketRepository incomeTaxBracketRepository;
+
+    @Override
+    protected Timeline load() {
+        NavigableMap<LocalDate, PhilhealthContribution> philhealth = philhealthContributionRepository.findAllByDeletedAtIsNull()
+                .stream()
+                .collect(Collectors.toMap(PhilhealthContribution::getEffectiveDate, Function.identity(), (a, b) -> b, TreeMap::new));
+
+        NavigableMap<LocalDate, PagibigContribution> pagibig = pagibigContributionRepository.findAllByDeletedAtIsNull()
+                .stream()
+                .collect(Collectors.toMap(PagibigContribution::getEffectiveDate, Function.identity(), (a, b) -> b, TreeMap::new));
+
+        NavigableMap<LocalDate, SssContribution> sss = sssContributionRepository.findAllByDeletedAtIsNull()
+                .stream()
+                .collect(Collectors.toMap(SssContribution::getEffectiveDate, Function.identity(), (a, b) -> b, TreeMap::new));
+
+        Map<SssContribution, SssBracketIndex> sssBracketIndexes = new IdentityHashMap<>();
+        sss.values().forEach(contribution -> compileSssBrackets(contribution)
+                .ifPresent(index -> sssBracketIndexes.put(contribution, index)));
+
+        NavigableMap<LocalDate, IncomeTaxTable> taxTables = incomeTaxBracketRepository.findAllByDeletedAtIsNull()
+                .stream()
+                .collect(Collectors.groupingBy(IncomeTaxBracket::getEffectiveDate, TreeMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(), IncomeTaxTable::compile)));
+
+        log.info("Loaded payroll configuration timeline: {} PhilHealth, {} Pag-IBIG, {} SSS and {} income tax versions",
+                philhealth.size(), pagibig.size(), sss.size(), taxTables.size());
+
+        return new Timeline(philhealth, pagibig, sss, sssBracketIndexes, taxTables);
+    }
+
+    /**
+     * Resolve the full configuration in force on the given date.
+     */
+    public PayrollConfiguration getConfiguration(LocalDate date) {
+        Timeline timeline = get();
+        return timeline.configurations.computeIfAbsent(date, payDate -> buildConfiguration(timeline, payDate));
+    }
+
+    private PayrollConfiguration buildConfiguration(Timeline timeline, LocalDate date) {
+        PhilhealthContribution philhealthContribution = latest(timeline.philhealth, date, "PhilHealth contribution configuration not found for date: ");
+        PagibigContribution pagibigContribution = latest(timeline.pagibig, date, "Pag-IBIG contribution configuration not found for date: ");
+        SssContribution sssContribution = latest(timeline.sss, date, "SSS contribution configuration not found for date: ");
+        SssBracketIndex sssBracketIndex = timeline.sssBracketIndexes.get(sssContribution);
+        IncomeTaxTable incomeTaxTable = latest(timeline.taxTables, date, "Income tax bracket configurations not found for date: ");
+
+        FixedPointRates fixedPointRates = FixedPointRates.compile(philhealthContribution, pagibigContribution, sssBracketIndex, incomeTaxTable);
+        if (fixedPointRates == null) {
+            log.warn("Payroll configuration for {} cannot be represented in centavos, falling back to BigDecimal calculation", date);
+        }
+
+        return PayrollConfiguration.builder()
+                .philhealthContribution(philhealthContribution)
+                .pagibigContribution(pagibigContribution)
+                .sssContribution(sssContribution)
+                .sssBracketIndex(sssBracketIndex)
+                .incomeTaxBrackets(incomeTaxTable.getBrackets())
+                .incomeTaxTable(incomeTaxTable)
+                .fixedPointRates(fixedPointRates)
+                .build();
+    }
+
+    private Optional<SssBracketIndex> compileSssBrackets(SssContribution contribution) {
+        try {
+            return Optional.of(SssBracketIndex.compile(contribution));
+        } catch (IllegalArgumentException e) {
+            log.error("SSS contribution effective {} has an invalid bracket table, falling back to a linear lookup: {}",
+                    contribution.getEffectiveDate(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static <T> T latest(NavigableMap<LocalDate, T> timeline, LocalDate date, String notFoundMessage) {
+        Map.Entry<LocalDate, T> entry = timeline.floorEntry(date);
+        if (entry == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundMessage + date);
+        }
+        return entry.getValue();
+    }
+
+    static final class Timeline {
+        private final NavigableMap<LocalDate, PhilhealthContribution> philhealth;
+        private final NavigableMap<LocalDate, PagibigContribution> pagibig;
+        private final NavigableMap<LocalDate, SssContribution> sss;
+        private final Map<SssContribution, SssBracketIndex> sssBracketIndexes;
+        private final NavigableMap<LocalDate, IncomeTaxTable> taxTables;
+
+        // Resolved configurations per pay date, so a batch run shares a single instance
+        private final Map<LocalDate, PayrollConfiguration> configurations = new ConcurrentHashMap<>();
+
+        private Timeline(NavigableMap<LocalDate, PhilhealthContribution> philhealth,
+                         NavigableMap<LocalDate, PagibigContribution> pagibig,
+                         NavigableMap<LocalDate, SssContribution> sss,
+                         Map<SssContribution, SssBracketIndex> sssBracketIndexes,
+                         NavigableMap<LocalDate, IncomeTaxTable> taxTables) {
+            this.philhealth = philhealth;
+            this.pagibig = pagibig;
+            this.sss = sss;
+            this.sssBracketIndexes = sssBracketIndexes;
+            this.taxTables = taxTables;
+        }
+    }
+
+}
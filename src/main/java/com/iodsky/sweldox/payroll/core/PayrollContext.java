@@ -1,12 +1,13 @@
 package com.iodsky.sweldox.payroll.core;
 
-import com.iodsky.sweldox.attendance.Attendance;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
 import com.iodsky.sweldox.employee.Employee;
 import com.iodsky.sweldox.payroll.benefit.Benefit;
 import lombok.Builder;
 import lombok.Getter;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @Getter
@@ -14,7 +15,9 @@ import java.util.List;
 public class PayrollContext {
     private Long employeeId;
     private Employee employee;
-    private List<Attendance> attendances;
+    private LocalDate periodStartDate;
+    private LocalDate periodEndDate;
+    private AttendanceSummary attendanceSummary;
     private List<Benefit> benefits;
 
     private BigDecimal hourlyRate;
@@ -3,6 +3,8 @@ package com.iodsky.sweldox.payroll.core;
 import com.iodsky.sweldox.common.response.ApiResponse;
 import com.iodsky.sweldox.common.response.PaginationMeta;
 import com.iodsky.sweldox.common.response.ResponseFactory;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtd;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtdService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,10 +12,15 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +33,9 @@ public class PayrollController {
 
     private final PayrollService payrollService;
     private final PayrollMapper payrollMapper;
+    private final PayrollSimulationService payrollSimulationService;
+    private final PayrollExportService payrollExportService;
+    private final PayrollYtdService payrollYtdService;
 
     @PreAuthorize("hasRole('PAYROLL')")
     @PostMapping
@@ -40,6 +50,93 @@ public class PayrollController {
         return ResponseFactory.created("Payroll created successfully", payroll);
     }
 
+    @PreAuthorize("hasRole('PAYROLL')")
+    @PostMapping(value = "/simulate", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Simulate payroll",
+            description = "Calculate the payroll register of a period without saving it, streamed as newline-delimited JSON " +
+                    "with one payroll per active employee in employee ID order. Employees whose payroll cannot be calculated " +
+                    "get a line with their ID and the error. Set employeeId to simulate a single employee. Requires PAYROLL role."
+    )
+    public ResponseEntity<StreamingResponseBody> simulatePayroll(@RequestBody PayrollRequest request) {
+        StreamingResponseBody register = payrollSimulationService.simulatePayroll(
+                request.getEmployeeId(),
+                request.getPeriodStartDate(),
+                request.getPeriodEndDate(),
+                request.getPayDate());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(register);
+    }
+
+    @PreAuthorize("hasRole('PAYROLL')")
+    @PostMapping("/recompute")
+    @Operation(
+            summary = "Recompute stale payrolls",
+            description = "Rebuild in place the payrolls whose attendance changed after they were generated, all of them or " +
+                    "only those of the given period. Returns the number of payrolls recomputed. Requires PAYROLL role."
+    )
+    public ResponseEntity<ApiResponse<Integer>> recomputeStalePayrolls(
+            @Parameter(description = "Period start date of the payrolls to recompute") @RequestParam(required = false) LocalDate periodStartDate,
+            @Parameter(description = "Period end date of the payrolls to recompute") @RequestParam(required = false) LocalDate periodEndDate
+    ) {
+        int recomputed = payrollService.recomputeStalePayrolls(periodStartDate, periodEndDate);
+
+        return ResponseFactory.ok("Stale payrolls recomputed successfully", recomputed);
+    }
+
+    @PreAuthorize("hasRole('PAYROLL')")
+    @GetMapping(value = "/export", produces = "text/csv")
+    @Operation(
+            summary = "Export payroll register",
+            description = "Download the payroll register of a period as CSV, one row per employee with deductions and " +
+                    "benefits as columns. The file is streamed while it is read. Requires PAYROLL role."
+    )
+    public ResponseEntity<StreamingResponseBody> exportPayrollRegister(
+            @Parameter(description = "Period start date") @RequestParam LocalDate periodStartDate,
+            @Parameter(description = "Period end date") @RequestParam LocalDate periodEndDate
+    ) {
+        StreamingResponseBody register = payrollExportService.exportRegister(periodStartDate, periodEndDate);
+
+        String fileName = "payroll-register_" + periodStartDate + "_" + periodEndDate + ".csv";
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(register);
+    }
+
+    @PreAuthorize("hasRole('PAYROLL')")
+    @GetMapping("/ytd")
+    @Operation(
+            summary = "Get year-to-date payroll figures",
+            description = "Retrieve the gross pay, benefits, contributions, withholding tax and net pay of an employee summed " +
+                    "over the payrolls paid in a calendar year. Requires PAYROLL role."
+    )
+    public ResponseEntity<ApiResponse<PayrollYtd>> getPayrollYtd(
+            @Parameter(description = "Employee ID") @RequestParam Long employeeId,
+            @Parameter(description = "Calendar year of the pay dates") @RequestParam int year
+    ) {
+        PayrollYtd ytd = payrollYtdService.getPayrollYtd(employeeId, year);
+
+        return ResponseFactory.ok("Year-to-date payroll retrieved successfully", ytd);
+    }
+
+    @PreAuthorize("hasRole('PAYROLL')")
+    @PostMapping("/ytd/rebuild")
+    @Operation(
+            summary = "Rebuild year-to-date payroll figures",
+            description = "Recompute the year-to-date figures of one year, or of every year when none is given, from the " +
+                    "payrolls. Returns the number of employee and year rows rebuilt. Requires PAYROLL role."
+    )
+    public ResponseEntity<ApiResponse<Integer>> rebuildPayrollYtd(
+            @Parameter(description = "Calendar year to rebuild") @RequestParam(required = false) Integer year
+    ) {
+        int rebuilt = payrollYtdService.rebuild(year);
+
+        return ResponseFactory.ok("Year-to-date payroll rebuilt successfully", rebuilt);
+    }
+
     @PreAuthorize("hasRole('PAYROLL')")
     @GetMapping
     @Operation(summary = "Get all payroll records", description = "Retrieve all payroll records with pagination and optional date filtering. Requires PAYROLL role.")
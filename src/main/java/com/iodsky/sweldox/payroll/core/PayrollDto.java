@@ -32,6 +32,8 @@ public class PayrollDto {
 
     private BigDecimal netPay;
 
+    private boolean stale;
+
 }
 
 @Data
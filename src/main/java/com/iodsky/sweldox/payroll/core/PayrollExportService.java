@@ -0,0 +1,150 @@
+package com.iodsky.sweldox.payroll.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Exports the payroll register of a period as CSV. A single query pivots the deduction and benefit
+ * lines into columns, and its rows are read through a forward-only cursor and written to the response
+ * as they arrive, so memory use does not grow with the number of payrolls.
+ */
+@Service
+@Slf4j
+public class PayrollExportService {
+
+    static final String[] HEADER = {
+            "employee_id", "last_name", "first_name", "period_start_date", "period_end_date", "pay_date",
+            "days_worked", "overtime", "monthly_rate", "daily_rate", "gross_pay",
+            "meal_allowance", "clothing_allowance", "phone_allowance", "total_benefits",
+            "sss", "philhealth", "pagibig", "withholding_tax", "total_deductions", "net_pay"
+    };
+
+    private static final String REGISTER_QUERY = """
+            SELECT p.employee_id, e.last_name, e.first_name, p.period_start_date, p.period_end_date, p.pay_date,
+                   p.days_worked, p.overtime, p.monthly_rate, p.daily_rate, p.gross_pay,
+                   b.meal, b.clothing, b.phone, p.total_benefits,
+                   d.sss, d.phic, d.hdmf, d.tax, p.total_deductions, p.net_pay
+            FROM payroll p
+            JOIN employee e ON e.id = p.employee_id
+            LEFT JOIN LATERAL (
+                SELECT SUM(amount) FILTER (WHERE deduction_code = 'SSS') AS sss,
+                       SUM(amount) FILTER (WHERE deduction_code = 'PHIC') AS phic,
+                       SUM(amount) FILTER (WHERE deduction_code = 'HDMF') AS hdmf,
+                       SUM(amount) FILTER (WHERE deduction_code = 'TAX') AS tax
+                FROM deduction
+                WHERE payroll_id = p.id
+            ) d ON TRUE
+            LEFT JOIN LATERAL (
+                SELECT SUM(amount) FILTER (WHERE benefit_type_id = 'MEAL') AS meal,
+                       SUM(amount) FILTER (WHERE benefit_type_id = 'CLOTHING') AS clothing,
+                       SUM(amount) FILTER (WHERE benefit_type_id = 'PHONE') AS phone
+                FROM payroll_benefits
+                WHERE payroll_id = p.id
+            ) b ON TRUE
+            WHERE p.period_start_date = ? AND p.period_end_date = ?
+            ORDER BY p.employee_id
+            """;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PayrollExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL only honours the fetch size inside a transaction, otherwise the whole result is buffered
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportRegister(LocalDate periodStartDate, LocalDate periodEndDate) {
+        if (periodStartDate == null || periodEndDate == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period start and end dates are required");
+        }
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writeRow(writer, HEADER);
+
+            long started = System.nanoTime();
+            int[] rows = {0};
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                        connection -> {
+                            PreparedStatement statement = connection.prepareStatement(REGISTER_QUERY,
+                                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                            statement.setFetchSize(FETCH_SIZE);
+                            statement.setDate(1, Date.valueOf(periodStartDate));
+                            statement.setDate(2, Date.valueOf(periodEndDate));
+                            return statement;
+                        },
+                        resultSet -> {
+                            writeRow(writer, toRow(resultSet));
+                            rows[0]++;
+                        }));
+            } catch (UncheckedIOException e) {
+                // The client went away mid-export
+                throw e.getCause();
+            }
+
+            writer.flush();
+            log.info("Exported {} payrolls for period {} to {} in {} ms",
+                    rows[0], periodStartDate, periodEndDate, (System.nanoTime() - started) / 1_000_000);
+        };
+    }
+
+    private static String[] toRow(ResultSet resultSet) throws SQLException {
+        String[] row = new String[HEADER.length];
+        for (int i = 0; i < row.length; i++) {
+            Object value = resultSet.getObject(i + 1);
+            row[i] = switch (value) {
+                case null -> "";
+                case BigDecimal amount -> amount.toPlainString();
+                default -> value.toString();
+            };
+        }
+        return row;
+    }
+
+    private static void writeRow(Writer writer, String[] values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -40,9 +40,11 @@ public class PayrollMapper {
                                 .build()
                 )
                 .netPay(payroll.getNetPay())
+                .stale(payroll.isStale())
                 .build();
     }
 
+    // Type associations are lazy, reading their code only touches the foreign key and never loads the type
     private BigDecimal getDeductionAmount(Payroll payroll, String type) {
         return payroll.getDeductions().stream()
                 .filter(d -> d.getDeductionType().getCode().equalsIgnoreCase(type))
@@ -0,0 +1,183 @@
+package com.iodsky.sweldox.payroll.core;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters of the payroll pipeline stages, published through the actuator metrics endpoint
+ * as {@code payroll.stage}, {@code payroll.items} and {@code payroll.written}.
+ * <p>
+ * Every meter is tagged with the ID of the job execution running on the current thread, taken from the
+ * batch step context, or {@code none} outside a job (e.g. the payroll API and simulations). Only the
+ * meters of the most recent job executions are kept, so the per-execution tag stays bounded.
+ */
+@Component
+@Slf4j
+public class PayrollMetrics {
+
+    public static final String STAGE_TIMER = "payroll.stage";
+    public static final String ITEMS_COUNTER = "payroll.items";
+    public static final String WRITTEN_COUNTER = "payroll.written";
+
+    public static final String JOB_EXECUTION_TAG = "job.execution.id";
+    private static final String NO_JOB_EXECUTION = "none";
+
+    public enum Stage {
+        EMPLOYEE, ATTENDANCE, CONFIGURATION, CALCULATION, WRITE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Outcome {
+        BUILT, EXISTING, FAILED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int retainedJobExecutions;
+
+    // Meters are registered once per job execution, the pipeline calls in here for every employee
+    private final Map<Long, ExecutionMeters> jobExecutionMeters = new ConcurrentHashMap<>();
+    private final ExecutionMeters noJobExecutionMeters;
+
+    // Oldest first, guarded by itself
+    private final Deque<Long> jobExecutionOrder = new ArrayDeque<>();
+
+    public PayrollMetrics(MeterRegistry meterRegistry,
+                          @Value("${payroll.metrics.retained-job-executions:20}") int retainedJobExecutions) {
+        this.meterRegistry = meterRegistry;
+        this.retainedJobExecutions = retainedJobExecutions;
+        this.noJobExecutionMeters = new ExecutionMeters(NO_JOB_EXECUTION);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> supplier) {
+        return currentMeters().stageTimer(stage).record(supplier);
+    }
+
+    public void time(Stage stage, Runnable runnable) {
+        time(stage, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public void count(Outcome outcome) {
+        currentMeters().itemsCounter(outcome).increment();
+    }
+
+    public void countWritten(int payrolls) {
+        currentMeters().writtenCounter().increment(payrolls);
+    }
+
+    private ExecutionMeters currentMeters() {
+        StepContext context = StepSynchronizationManager.getContext();
+        if (context == null) {
+            return noJobExecutionMeters;
+        }
+
+        Long jobExecutionId = context.getStepExecution().getJobExecutionId();
+        ExecutionMeters meters = jobExecutionMeters.get(jobExecutionId);
+        return meters != null ? meters : track(jobExecutionId);
+    }
+
+    private ExecutionMeters track(Long jobExecutionId) {
+        synchronized (jobExecutionOrder) {
+            ExecutionMeters meters = jobExecutionMeters.get(jobExecutionId);
+            if (meters != null) {
+                return meters;
+            }
+
+            meters = new ExecutionMeters(String.valueOf(jobExecutionId));
+            jobExecutionMeters.put(jobExecutionId, meters);
+            jobExecutionOrder.addLast(jobExecutionId);
+            while (jobExecutionOrder.size() > retainedJobExecutions) {
+                evict(jobExecutionOrder.removeFirst());
+            }
+            return meters;
+        }
+    }
+
+    private void evict(Long jobExecutionId) {
+        jobExecutionMeters.remove(jobExecutionId);
+
+        String tag = String.valueOf(jobExecutionId);
+        List<Meter> meters = meterRegistry.getMeters().stream()
+                .filter(meter -> tag.equals(meter.getId().getTag(JOB_EXECUTION_TAG)))
+                .toList();
+        meters.forEach(meterRegistry::remove);
+        log.debug("Removed {} payroll meters of job execution {}", meters.size(), jobExecutionId);
+    }
+
+    /**
+     * Meters of one job execution, registered on first use. Threads racing to register the same meter
+     * get the same instance back from the registry, so the slots are filled without locking.
+     */
+    private final class ExecutionMeters {
+
+        private final String jobExecutionTag;
+        private final AtomicReferenceArray<Timer> stageTimers = new AtomicReferenceArray<>(Stage.values().length);
+        private final AtomicReferenceArray<Counter> itemsCounters = new AtomicReferenceArray<>(Outcome.values().length);
+        private volatile Counter writtenCounter;
+
+        private ExecutionMeters(String jobExecutionTag) {
+            this.jobExecutionTag = jobExecutionTag;
+        }
+
+        private Timer stageTimer(Stage stage) {
+            Timer timer = stageTimers.get(stage.ordinal());
+            if (timer == null) {
+                timer = Timer.builder(STAGE_TIMER)
+                        .description("Time spent in a payroll pipeline stage")
+                        .tag("stage", stage.tag)
+                        .tag(JOB_EXECUTION_TAG, jobExecutionTag)
+                        .register(meterRegistry);
+                stageTimers.set(stage.ordinal(), timer);
+            }
+            return timer;
+        }
+
+        private Counter itemsCounter(Outcome outcome) {
+            Counter counter = itemsCounters.get(outcome.ordinal());
+            if (counter == null) {
+                counter = Counter.builder(ITEMS_COUNTER)
+                        .description("Employees processed by the payroll job, by outcome")
+                        .tag("outcome", outcome.tag)
+                        .tag(JOB_EXECUTION_TAG, jobExecutionTag)
+                        .register(meterRegistry);
+                itemsCounters.set(outcome.ordinal(), counter);
+            }
+            return counter;
+        }
+
+        private Counter writtenCounter() {
+            Counter counter = writtenCounter;
+            if (counter == null) {
+                counter = Counter.builder(WRITTEN_COUNTER)
+                        .description("Payrolls written by the payroll job")
+                        .tag(JOB_EXECUTION_TAG, jobExecutionTag)
+                        .register(meterRegistry);
+                writtenCounter = counter;
+            }
+            return counter;
+        }
+
+    }
+
+}
@@ -3,9 +3,13 @@ package com.iodsky.sweldox.payroll.core;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -16,4 +20,40 @@ public interface PayrollRepository extends JpaRepository<Payroll, UUID> {
     Page<Payroll> findAllByEmployee_IdAndPeriodStartDateBetween(Long employeeId, LocalDate startDate, LocalDate endDate, Pageable pageable);
 
     boolean existsByEmployee_IdAndPeriodStartDateAndPeriodEndDate(Long employeeId, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT p.employee.id FROM Payroll p WHERE p.periodStartDate = :startDate AND p.periodEndDate = :endDate")
+    List<Long> findEmployeeIdsByPeriod(LocalDate startDate, LocalDate endDate);
+
+    @Query("""
+        SELECT p.employee.id FROM Payroll p
+        WHERE p.periodStartDate = :startDate AND p.periodEndDate = :endDate
+        AND p.employee.id BETWEEN :minId AND :maxId
+       """)
+    List<Long> findEmployeeIdsByPeriodAndEmployeeIdBetween(LocalDate startDate, LocalDate endDate, Long minId, Long maxId);
+
+    /**
+     * Flag the payroll of an employee whose period covers the given date. The version is bumped even when
+     * the payroll is already stale, so a recomputation running concurrently fails its optimistic lock and
+     * leaves the payroll stale.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Payroll p
+        SET p.stale = true, p.version = COALESCE(p.version, 0) + 1
+        WHERE p.employee.id = :employeeId
+        AND p.periodStartDate <= :date AND p.periodEndDate >= :date
+       """)
+    int markStale(Long employeeId, LocalDate date);
+
+    @Query("SELECT p.id FROM Payroll p WHERE p.stale = true ORDER BY p.periodStartDate, p.employee.id")
+    List<UUID> findStaleIds();
+
+    @Query("""
+        SELECT p.id
+        FROM Payroll p
+        WHERE p.stale = true AND p.periodStartDate = :startDate AND p.periodEndDate = :endDate
+        ORDER BY p.employee.id
+       """)
+    List<UUID> findStaleIdsByPeriod(LocalDate startDate, LocalDate endDate);
 }
@@ -1,21 +1,32 @@
 package com.iodsky.sweldox.payroll.core;
 
+import com.iodsky.sweldox.attendance.AttendanceChangedEvent;
 import com.iodsky.sweldox.common.DateRange;
 import com.iodsky.sweldox.common.DateRangeResolver;
+import com.iodsky.sweldox.payroll.deduction.Deduction;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtd;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtdService;
 import com.iodsky.sweldox.security.user.User;
 import com.iodsky.sweldox.security.user.UserService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,7 +38,10 @@ public class PayrollService {
     private final PayrollBuilder payrollBuilder;
     private final UserService userService;
     private final DateRangeResolver dateRangeResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final PayrollYtdService payrollYtdService;
 
+    @Transactional
     public Payroll createPayroll(Long employeeId, LocalDate periodStartDate, LocalDate periodEndDate, LocalDate payDate) {
 
         if (payrollExistsForEmployeeAndPeriod(employeeId, periodStartDate, periodEndDate)) {
@@ -46,9 +60,111 @@ public class PayrollService {
 
         Payroll payroll = payrollBuilder.buildPayroll(employeeId, periodStartDate, periodEndDate, payDate);
 
-        return payrollRepository.save(payroll);
+        Payroll saved = payrollRepository.save(payroll);
+        payrollYtdService.accumulate(List.of(PayrollYtd.of(saved)));
+
+        return saved;
+    }
+
+
+    /**
+     * Flag the payroll covering a changed attendance date, if one was already generated, for recomputation.
+     */
+    @EventListener
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        if (payrollRepository.markStale(event.employeeId(), event.date()) > 0) {
+            log.info("Marked payroll of employee {} covering {} as stale", event.employeeId(), event.date());
+        }
+    }
+
+    /**
+     * Rebuild the stale payrolls in place, all of them or only those of the given period. Each payroll
+     * is recomputed in its own transaction: one that fails, or whose attendance changes again meanwhile,
+     * stays stale for the next run.
+     *
+     * @return the number of payrolls recomputed
+     */
+    public int recomputeStalePayrolls(LocalDate periodStartDate, LocalDate periodEndDate) {
+        if ((periodStartDate == null) != (periodEndDate == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period start and end dates must be given together");
+        }
+
+        List<UUID> staleIds = periodStartDate == null
+                ? payrollRepository.findStaleIds()
+                : payrollRepository.findStaleIdsByPeriod(periodStartDate, periodEndDate);
+
+        int recomputed = 0;
+        for (UUID payrollId : staleIds) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> recomputePayroll(payrollId)))) {
+                    recomputed++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to recompute stale payroll {}, it stays stale: {}", payrollId, e.getMessage());
+            }
+        }
+
+        log.info("Recomputed {} of {} stale payrolls", recomputed, staleIds.size());
+        return recomputed;
+    }
+
+    private boolean recomputePayroll(UUID payrollId) {
+        Payroll payroll = payrollRepository.findById(payrollId).orElse(null);
+        if (payroll == null || !payroll.isStale()) {
+            return false;
+        }
+
+        PayrollYtd previous = PayrollYtd.of(payroll);
+        Payroll rebuilt = payrollBuilder.buildPayroll(payroll.getEmployee().getId(),
+                payroll.getPeriodStartDate(), payroll.getPeriodEndDate(), payroll.getPayDate());
+
+        payroll.setDaysWorked(rebuilt.getDaysWorked());
+        payroll.setOvertime(rebuilt.getOvertime());
+        payroll.setMonthlyRate(rebuilt.getMonthlyRate());
+        payroll.setDailyRate(rebuilt.getDailyRate());
+        payroll.setGrossPay(rebuilt.getGrossPay());
+        payroll.setTotalBenefits(rebuilt.getTotalBenefits());
+        payroll.setTotalDeductions(rebuilt.getTotalDeductions());
+        payroll.setNetPay(rebuilt.getNetPay());
+        payroll.setStale(false);
+
+        mergeDeductions(payroll, rebuilt.getDeductions());
+        mergeBenefits(payroll, rebuilt.getBenefits());
+
+        payrollYtdService.accumulate(List.of(PayrollYtd.of(payroll).minus(previous)));
+        return true;
+    }
+
+    // Existing lines keep their IDs and are updated in place, lines that no longer apply are removed
+    private void mergeDeductions(Payroll payroll, List<Deduction> recomputed) {
+        Map<String, Deduction> byCode = recomputed.stream()
+                .collect(Collectors.toMap(d -> d.getDeductionType().getCode(), Function.identity()));
+
+        payroll.getDeductions().removeIf(d -> !byCode.containsKey(d.getDeductionType().getCode()));
+        for (Deduction deduction : payroll.getDeductions()) {
+            deduction.setAmount(byCode.remove(deduction.getDeductionType().getCode()).getAmount());
+        }
+
+        byCode.values().forEach(deduction -> {
+            deduction.setPayroll(payroll);
+            payroll.getDeductions().add(deduction);
+        });
     }
 
+    private void mergeBenefits(Payroll payroll, List<PayrollBenefit> recomputed) {
+        Map<String, PayrollBenefit> byType = recomputed.stream()
+                .collect(Collectors.toMap(b -> b.getBenefitType().getId(), Function.identity()));
+
+        payroll.getBenefits().removeIf(b -> !byType.containsKey(b.getBenefitType().getId()));
+        for (PayrollBenefit benefit : payroll.getBenefits()) {
+            benefit.setAmount(byType.remove(benefit.getBenefitType().getId()).getAmount());
+        }
+
+        byType.values().forEach(benefit -> {
+            benefit.setPayroll(payroll);
+            payroll.getBenefits().add(benefit);
+        });
+    }
 
     private Boolean payrollExistsForEmployeeAndPeriod(Long employeeId, LocalDate startDate, LocalDate endDate) {
         return payrollRepository.existsByEmployee_IdAndPeriodStartDateAndPeriodEndDate(employeeId, startDate, endDate);
@@ -0,0 +1,30 @@
+package com.iodsky.sweldox.payroll.core;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor shared by payroll simulations. The queue holds at most one page of employees; when it
+ * is full the streaming thread calculates the payroll itself, which throttles concurrent simulations.
+ */
+@Configuration
+public class PayrollSimulationConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor payrollSimulationExecutor(
+            @Value("${payroll.simulation.concurrency}") int concurrency,
+            @Value("${payroll.simulation.page-size}") int pageSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("payroll-simulation-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(pageSize);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+}
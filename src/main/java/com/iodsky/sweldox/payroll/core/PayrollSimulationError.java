@@ -0,0 +1,18 @@
+package com.iodsky.sweldox.payroll.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Register line of an employee whose payroll could not be calculated.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PayrollSimulationError {
+    private Long employeeId;
+    private String error;
+}
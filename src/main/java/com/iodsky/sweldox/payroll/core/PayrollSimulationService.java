@@ -0,0 +1,135 @@
+package com.iodsky.sweldox.payroll.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.iodsky.sweldox.attendance.AttendanceService;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.employee.EmployeeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Calculates the payroll register of a period without persisting anything. Employees are read in
+ * keyset pages; the attendance of a page is summarized in one query and its payrolls are calculated
+ * in parallel, then written in employee ID order before the next page is read. Memory use is bounded
+ * by the page size whatever the number of employees.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollSimulationService {
+
+    private final EmployeeService employeeService;
+    private final AttendanceService attendanceService;
+    private final PayrollBuilder payrollBuilder;
+    private final PayrollCalculator payrollCalculator;
+    private final PayrollMapper payrollMapper;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor payrollSimulationExecutor;
+
+    @Value("${payroll.simulation.page-size}")
+    private int pageSize;
+
+    /**
+     * Simulate the payroll of every active employee, or only of {@code employeeId} when given, as
+     * newline-delimited JSON: one {@link PayrollDto} per employee, or a {@link PayrollSimulationError}
+     * when their payroll cannot be calculated.
+     */
+    public StreamingResponseBody simulatePayroll(Long employeeId, LocalDate periodStartDate, LocalDate periodEndDate, LocalDate payDate) {
+        if (periodStartDate == null || periodEndDate == null || payDate == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period start date, period end date and pay date are required");
+        }
+        if (periodEndDate.isBefore(periodStartDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period end date must not be before the start date");
+        }
+
+        // Resolved before streaming starts, so a missing configuration fails the request with a proper status
+        PayrollConfiguration config = payrollCalculator.loadConfiguration(payDate);
+        if (employeeId != null) {
+            employeeService.getEmployeeById(employeeId);
+        }
+
+        return outputStream -> {
+            long started = System.nanoTime();
+            int count = employeeId != null
+                    ? writePage(outputStream, List.of(employeeId), periodStartDate, periodEndDate, payDate, config)
+                    : writeRegister(outputStream, periodStartDate, periodEndDate, payDate, config);
+
+            log.info("Simulated {} payrolls for period {} to {} in {} ms",
+                    count, periodStartDate, periodEndDate, (System.nanoTime() - started) / 1_000_000);
+        };
+    }
+
+    private int writeRegister(OutputStream outputStream, LocalDate periodStartDate, LocalDate periodEndDate,
+                              LocalDate payDate, PayrollConfiguration config) throws IOException {
+        int count = 0;
+        Long lastId = 0L;
+        List<Long> employeeIds;
+
+        do {
+            employeeIds = employeeService.getActiveEmployeeIdsAfter(lastId, Long.MAX_VALUE, pageSize);
+            if (employeeIds.isEmpty()) {
+                break;
+            }
+
+            count += writePage(outputStream, employeeIds, periodStartDate, periodEndDate, payDate, config);
+            lastId = employeeIds.getLast();
+        } while (employeeIds.size() == pageSize);
+
+        return count;
+    }
+
+    private int writePage(OutputStream outputStream, List<Long> employeeIds, LocalDate periodStartDate,
+                          LocalDate periodEndDate, LocalDate payDate, PayrollConfiguration config) throws IOException {
+        Map<Long, AttendanceSummary> summaries = attendanceService.getEmployeeAttendanceSummaries(employeeIds, periodStartDate, periodEndDate);
+
+        List<CompletableFuture<Object>> lines = employeeIds.stream()
+                .map(id -> CompletableFuture.supplyAsync(
+                        () -> simulate(id, periodStartDate, periodEndDate, payDate, config, summaries.get(id)),
+                        payrollSimulationExecutor))
+                .toList();
+
+        ObjectWriter writer = objectMapper.writer();
+        try {
+            for (CompletableFuture<Object> line : lines) {
+                outputStream.write(writer.writeValueAsBytes(line.join()));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            // The client went away, drop the rest of the page
+            lines.forEach(line -> line.cancel(false));
+            throw e;
+        }
+
+        return lines.size();
+    }
+
+    private Object simulate(Long employeeId, LocalDate periodStartDate, LocalDate periodEndDate, LocalDate payDate,
+                            PayrollConfiguration config, AttendanceSummary attendanceSummary) {
+        try {
+            Payroll payroll = payrollBuilder.buildPayroll(employeeId, periodStartDate, periodEndDate, payDate, config, attendanceSummary);
+            return payrollMapper.toDto(payroll);
+        } catch (Exception e) {
+            log.warn("Failed to simulate payroll for employee {}: {}", employeeId, e.getMessage());
+            return PayrollSimulationError.builder()
+                    .employeeId(employeeId)
+                    .error(e instanceof ResponseStatusException rse ? rse.getReason() : e.getMessage())
+                    .build();
+        }
+    }
+
+}
@@ -27,7 +27,7 @@ public class Deduction extends BaseModel {
     @JsonIgnore
     private Payroll payroll;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "deduction_code")
     private DeductionType deductionType;
 
@@ -0,0 +1,41 @@
+package com.iodsky.sweldox.payroll.deduction;
+
+import com.iodsky.sweldox.common.ReloadableCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Deduction types keyed by code, loaded once and shared by all payroll computations.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeductionTypeCache extends ReloadableCache<Map<String, DeductionType>> {
+
+    private final DeductionTypeRepository deductionTypeRepository;
+
+    @Override
+    protected Map<String, DeductionType> load() {
+        Map<String, DeductionType> deductionTypes = deductionTypeRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(DeductionType::getCode, Function.identity()));
+
+        log.info("Loaded {} deduction types into cache", deductionTypes.size());
+        return deductionTypes;
+    }
+
+    public DeductionType getByCode(String code) {
+        DeductionType deductionType = get().get(code);
+        if (deductionType == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Deduction type not found with code: " + code);
+        }
+        return deductionType;
+    }
+
+}
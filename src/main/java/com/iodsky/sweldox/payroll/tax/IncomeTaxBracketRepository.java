@@ -23,4 +23,6 @@ public interface IncomeTaxBracketRepository extends JpaRepository<IncomeTaxBrack
             @Param("date") LocalDate date
     );
 
+    List<IncomeTaxBracket> findAllByDeletedAtIsNull();
+
 }
@@ -1,5 +1,6 @@
 package com.iodsky.sweldox.payroll.tax;
 
+import com.iodsky.sweldox.payroll.core.PayrollConfigurationCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class IncomeTaxBracketService {
 
     private final IncomeTaxBracketRepository incomeTaxBracketRepository;
+    private final PayrollConfigurationCache payrollConfigurationCache;
 
     @Transactional
     public IncomeTaxBracket createIncomeTaxBracket(IncomeTaxBracketRequest request) {
@@ -33,7 +35,9 @@ public class IncomeTaxBracketService {
                 .effectiveDate(request.getEffectiveDate())
                 .build();
 
-        return incomeTaxBracketRepository.save(bracket);
+        IncomeTaxBracket saved = incomeTaxBracketRepository.save(bracket);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     public Page<IncomeTaxBracket> getAllIncomeTaxBrackets(
@@ -96,7 +100,9 @@ public class IncomeTaxBracketService {
         bracket.setThreshold(request.getThreshold());
         bracket.setEffectiveDate(request.getEffectiveDate());
 
-        return incomeTaxBracketRepository.save(bracket);
+        IncomeTaxBracket saved = incomeTaxBracketRepository.save(bracket);
+        payrollConfigurationCache.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -104,5 +110,6 @@ public class IncomeTaxBracketService {
         IncomeTaxBracket bracket = getIncomeTaxBracketById(id);
         bracket.setDeletedAt(Instant.now());
         incomeTaxBracketRepository.save(bracket);
+        payrollConfigurationCache.invalidate();
     }
 }
@@ -0,0 +1,106 @@
+package com.iodsky.sweldox.payroll.tax;
+
+import com.iodsky.sweldox.common.MoneyUtil;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, thread-safe lookup table for the income tax brackets of one effective date.
+ * <p>
+ * Brackets are sorted by minimum income and flattened into disjoint centavo segments, each owned
+ * by the first bracket that covers it, so a binary search over the segment floors returns the same
+ * bracket as scanning the sorted brackets for the first match.
+ */
+public final class IncomeTaxTable {
+
+    @Getter
+    private final List<IncomeTaxBracket> brackets;
+
+    private final long[] segmentFloors;
+    private final long[] segmentCeilings;
+    private final int[] segmentBrackets;
+
+    private IncomeTaxTable(List<IncomeTaxBracket> brackets, long[] segmentFloors, long[] segmentCeilings, int[] segmentBrackets) {
+        this.brackets = brackets;
+        this.segmentFloors = segmentFloors;
+        this.segmentCeilings = segmentCeilings;
+        this.segmentBrackets = segmentBrackets;
+    }
+
+    public static IncomeTaxTable compile(List<IncomeTaxBracket> brackets) {
+        List<IncomeTaxBracket> sorted = brackets.stream()
+                .sorted(Comparator.comparing(IncomeTaxBracket::getMinIncome))
+                .toList();
+
+        int size = sorted.size();
+        long[] floors = new long[size];
+        long[] ceilings = new long[size];
+        int[] owners = new int[size];
+        int segments = 0;
+
+        // Highest centavo amount already owned by an earlier bracket
+        long covered = Long.MIN_VALUE;
+
+        for (int i = 0; i < size; i++) {
+            IncomeTaxBracket bracket = sorted.get(i);
+            long floor = MoneyUtil.ceilCents(bracket.getMinIncome());
+            long ceiling = bracket.getMaxIncome() == null ? Long.MAX_VALUE : MoneyUtil.floorCents(bracket.getMaxIncome());
+
+            long start = covered == Long.MIN_VALUE ? floor : Math.max(floor, covered + 1);
+            if (covered != Long.MAX_VALUE && start <= ceiling) {
+                floors[segments] = start;
+                ceilings[segments] = ceiling;
+                owners[segments] = i;
+                segments++;
+            }
+            covered = Math.max(covered, ceiling);
+        }
+
+        return new IncomeTaxTable(
+                List.copyOf(sorted),
+                Arrays.copyOf(floors, segments),
+                Arrays.copyOf(ceilings, segments),
+                Arrays.copyOf(owners, segments));
+    }
+
+    /**
+     * Index in {@link #getBrackets()} of the bracket for the income in centavos, or -1 if none applies.
+     */
+    public int indexOf(long incomeCents) {
+        int position = Arrays.binarySearch(segmentFloors, incomeCents);
+        int segment = position >= 0 ? position : -position - 2;
+
+        if (segment < 0 || incomeCents > segmentCeilings[segment]) {
+            return -1;
+        }
+        return segmentBrackets[segment];
+    }
+
+    /**
+     * Bracket applicable to the taxable income, or null if no bracket covers it.
+     */
+    public IncomeTaxBracket find(BigDecimal taxableIncome) {
+        if (!MoneyUtil.isWholeCents(taxableIncome)) {
+            return scan(taxableIncome);
+        }
+
+        int index = indexOf(MoneyUtil.toCents(taxableIncome));
+        return index < 0 ? null : brackets.get(index);
+    }
+
+    // Fraction of a centavo incomes cannot use the centavo segments, compare the exact amounts instead
+    private IncomeTaxBracket scan(BigDecimal taxableIncome) {
+        for (IncomeTaxBracket bracket : brackets) {
+            if (taxableIncome.compareTo(bracket.getMinIncome()) >= 0
+                    && (bracket.getMaxIncome() == null || taxableIncome.compareTo(bracket.getMaxIncome()) <= 0)) {
+                return bracket;
+            }
+        }
+        return null;
+    }
+
+}
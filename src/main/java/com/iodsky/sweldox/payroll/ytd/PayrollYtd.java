@@ -0,0 +1,74 @@
+package com.iodsky.sweldox.payroll.ytd;
+
+import com.iodsky.sweldox.payroll.core.Payroll;
+import com.iodsky.sweldox.payroll.deduction.Deduction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Payroll figures of an employee summed over the calendar year of the pay date. A single payroll
+ * contributes a count of one, and the difference between two versions of a payroll a count of zero.
+ */
+public record PayrollYtd(
+        Long employeeId,
+        int year,
+        int payrollCount,
+        BigDecimal grossPay,
+        BigDecimal totalBenefits,
+        BigDecimal sss,
+        BigDecimal philhealth,
+        BigDecimal pagibig,
+        BigDecimal withholdingTax,
+        BigDecimal totalDeductions,
+        BigDecimal netPay
+) {
+
+    public static PayrollYtd of(Payroll payroll) {
+        BigDecimal sss = BigDecimal.ZERO;
+        BigDecimal philhealth = BigDecimal.ZERO;
+        BigDecimal pagibig = BigDecimal.ZERO;
+        BigDecimal withholdingTax = BigDecimal.ZERO;
+
+        List<Deduction> deductions = payroll.getDeductions() == null ? List.of() : payroll.getDeductions();
+        for (Deduction deduction : deductions) {
+            BigDecimal amount = orZero(deduction.getAmount());
+            switch (deduction.getDeductionType().getCode()) {
+                case "SSS" -> sss = sss.add(amount);
+                case "PHIC" -> philhealth = philhealth.add(amount);
+                case "HDMF" -> pagibig = pagibig.add(amount);
+                case "TAX" -> withholdingTax = withholdingTax.add(amount);
+                default -> { }
+            }
+        }
+
+        return new PayrollYtd(payroll.getEmployee().getId(), payroll.getPayDate().getYear(), 1,
+                orZero(payroll.getGrossPay()), orZero(payroll.getTotalBenefits()),
+                sss, philhealth, pagibig, withholdingTax,
+                orZero(payroll.getTotalDeductions()), orZero(payroll.getNetPay()));
+    }
+
+    /**
+     * The change from a previous version of the same payroll to this one.
+     */
+    public PayrollYtd minus(PayrollYtd previous) {
+        return new PayrollYtd(employeeId, year, payrollCount - previous.payrollCount,
+                grossPay.subtract(previous.grossPay), totalBenefits.subtract(previous.totalBenefits),
+                sss.subtract(previous.sss), philhealth.subtract(previous.philhealth),
+                pagibig.subtract(previous.pagibig), withholdingTax.subtract(previous.withholdingTax),
+                totalDeductions.subtract(previous.totalDeductions), netPay.subtract(previous.netPay));
+    }
+
+    PayrollYtd plus(PayrollYtd other) {
+        return new PayrollYtd(employeeId, year, payrollCount + other.payrollCount,
+                grossPay.add(other.grossPay), totalBenefits.add(other.totalBenefits),
+                sss.add(other.sss), philhealth.add(other.philhealth),
+                pagibig.add(other.pagibig), withholdingTax.add(other.withholdingTax),
+                totalDeductions.add(other.totalDeductions), netPay.add(other.netPay));
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.iodsky.sweldox.payroll.ytd;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the {@code payroll_ytd} accumulator: payroll writers add their payrolls, or the change to a
+ * recomputed payroll, in their own transaction, and the table can be rebuilt from the payrolls at any time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollYtdService {
+
+    private static final String UPSERT = """
+            INSERT INTO payroll_ytd (employee_id, pay_year, payroll_count, gross_pay, total_benefits,
+                                     sss, philhealth, pagibig, withholding_tax, total_deductions, net_pay, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (employee_id, pay_year) DO UPDATE SET
+                payroll_count = payroll_ytd.payroll_count + EXCLUDED.payroll_count,
+                gross_pay = payroll_ytd.gross_pay + EXCLUDED.gross_pay,
+                total_benefits = payroll_ytd.total_benefits + EXCLUDED.total_benefits,
+                sss = payroll_ytd.sss + EXCLUDED.sss,
+                philhealth = payroll_ytd.philhealth + EXCLUDED.philhealth,
+                pagibig = payroll_ytd.pagibig + EXCLUDED.pagibig,
+                withholding_tax = payroll_ytd.withholding_tax + EXCLUDED.withholding_tax,
+                total_deductions = payroll_ytd.total_deductions + EXCLUDED.total_deductions,
+                net_pay = payroll_ytd.net_pay + EXCLUDED.net_pay,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String FIND = """
+            SELECT employee_id, pay_year, payroll_count, gross_pay, total_benefits,
+                   sss, philhealth, pagibig, withholding_tax, total_deductions, net_pay
+            FROM payroll_ytd
+            WHERE employee_id = ? AND pay_year = ?
+            """;
+
+    private static final String REBUILD = """
+            INSERT INTO payroll_ytd (employee_id, pay_year, payroll_count, gross_pay, total_benefits,
+                                     sss, philhealth, pagibig, withholding_tax, total_deductions, net_pay, updated_at)
+            SELECT p.employee_id, EXTRACT(YEAR FROM p.pay_date)::INTEGER, COUNT(*),
+                   COALESCE(SUM(p.gross_pay), 0), COALESCE(SUM(p.total_benefits), 0),
+                   COALESCE(SUM(d.sss), 0), COALESCE(SUM(d.phic), 0), COALESCE(SUM(d.hdmf), 0), COALESCE(SUM(d.tax), 0),
+                   COALESCE(SUM(p.total_deductions), 0), COALESCE(SUM(p.net_pay), 0), CURRENT_TIMESTAMP
+            FROM payroll p
+            LEFT JOIN LATERAL (
+                SELECT SUM(amount) FILTER (WHERE deduction_code = 'SSS') AS sss,
+                       SUM(amount) FILTER (WHERE deduction_code = 'PHIC') AS phic,
+                       SUM(amount) FILTER (WHERE deduction_code = 'HDMF') AS hdmf,
+                       SUM(amount) FILTER (WHERE deduction_code = 'TAX') AS tax
+                FROM deduction
+                WHERE payroll_id = p.id
+            ) d ON TRUE
+            WHERE %s
+            GROUP BY p.employee_id, EXTRACT(YEAR FROM p.pay_date)
+            """;
+
+    private static final RowMapper<PayrollYtd> ROW_MAPPER = (rs, rowNum) -> new PayrollYtd(
+            rs.getLong("employee_id"),
+            rs.getInt("pay_year"),
+            rs.getInt("payroll_count"),
+            rs.getBigDecimal("gross_pay"),
+            rs.getBigDecimal("total_benefits"),
+            rs.getBigDecimal("sss"),
+            rs.getBigDecimal("philhealth"),
+            rs.getBigDecimal("pagibig"),
+            rs.getBigDecimal("withholding_tax"),
+            rs.getBigDecimal("total_deductions"),
+            rs.getBigDecimal("net_pay"));
+
+    private static final Comparator<PayrollYtd> KEY_ORDER = Comparator
+            .comparing(PayrollYtd::employeeId)
+            .thenComparingInt(PayrollYtd::year);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add payrolls, or changes to payrolls, to the year-to-date figures as part of the caller's transaction,
+     * so the accumulator commits or rolls back together with the payrolls.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void accumulate(Collection<PayrollYtd> changes) {
+        // One row per employee and year, in key order so concurrent writers lock rows in the same order
+        Map<PayrollYtd, PayrollYtd> merged = new TreeMap<>(KEY_ORDER);
+        for (PayrollYtd change : changes) {
+            merged.merge(change, change, PayrollYtd::plus);
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(merged.size());
+        for (PayrollYtd ytd : merged.values()) {
+            if (isEmpty(ytd)) {
+                continue;
+            }
+            rows.add(new Object[]{
+                    ytd.employeeId(), ytd.year(), ytd.payrollCount(), ytd.grossPay(), ytd.totalBenefits(),
+                    ytd.sss(), ytd.philhealth(), ytd.pagibig(), ytd.withholdingTax(), ytd.totalDeductions(), ytd.netPay(),
+                    now
+            });
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        }
+    }
+
+    public PayrollYtd getPayrollYtd(Long employeeId, int year) {
+        return jdbcTemplate.query(FIND, ROW_MAPPER, employeeId, year).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No payroll found for employee " + employeeId + " in " + year));
+    }
+
+    /**
+     * Recompute the year-to-date figures of one year, or of every year when none is given, from the payrolls.
+     * Payroll writers wait for the rebuild to commit, so no payroll is counted twice or missed.
+     *
+     * @return the number of employee and year rows rebuilt
+     */
+    @Transactional
+    public int rebuild(Integer year) {
+        jdbcTemplate.execute("LOCK TABLE payroll_ytd IN EXCLUSIVE MODE");
+
+        int rebuilt;
+        if (year == null) {
+            jdbcTemplate.update("DELETE FROM payroll_ytd");
+            rebuilt = jdbcTemplate.update(REBUILD.formatted("p.pay_date IS NOT NULL"));
+        } else {
+            LocalDate start = LocalDate.of(year, 1, 1);
+            jdbcTemplate.update("DELETE FROM payroll_ytd WHERE pay_year = ?", year);
+            rebuilt = jdbcTemplate.update(REBUILD.formatted("p.pay_date >= ? AND p.pay_date < ?"),
+                    Date.valueOf(start), Date.valueOf(start.plusYears(1)));
+        }
+
+        log.info("Rebuilt {} year-to-date payroll rows{}", rebuilt, year == null ? "" : " for " + year);
+        return rebuilt;
+    }
+
+    private static boolean isEmpty(PayrollYtd ytd) {
+        return ytd.payrollCount() == 0
+                && isZero(ytd.grossPay()) && isZero(ytd.totalBenefits())
+                && isZero(ytd.sss()) && isZero(ytd.philhealth()) && isZero(ytd.pagibig()) && isZero(ytd.withholdingTax())
+                && isZero(ytd.totalDeductions()) && isZero(ytd.netPay());
+    }
+
+    private static boolean isZero(BigDecimal amount) {
+        return amount.signum() == 0;
+    }
+
+}
@@ -0,0 +1,5 @@
+-- Payrolls whose attendance changed after they were generated, pending recomputation
+ALTER TABLE payroll ADD COLUMN stale BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Only the few stale rows are indexed
+CREATE INDEX idx_payroll_stale ON payroll(period_start_date, period_end_date) WHERE stale;
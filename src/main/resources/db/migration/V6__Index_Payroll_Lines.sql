@@ -0,0 +1,3 @@
+-- Deduction and benefit lines are always read by payroll
+CREATE INDEX IF NOT EXISTS idx_deduction_payroll ON deduction(payroll_id);
+CREATE INDEX IF NOT EXISTS idx_payroll_benefits_payroll ON payroll_benefits(payroll_id);
@@ -0,0 +1,37 @@
+-- Year-to-date payroll figures per employee and calendar year of the pay date, kept up to date by the
+-- payroll writers so year-end computations read one row instead of the year's payrolls
+CREATE TABLE IF NOT EXISTS payroll_ytd (
+    employee_id BIGINT NOT NULL,
+    pay_year INTEGER NOT NULL,
+    payroll_count INTEGER NOT NULL,
+    gross_pay NUMERIC(19, 2) NOT NULL,
+    total_benefits NUMERIC(19, 2) NOT NULL,
+    sss NUMERIC(19, 2) NOT NULL,
+    philhealth NUMERIC(19, 2) NOT NULL,
+    pagibig NUMERIC(19, 2) NOT NULL,
+    withholding_tax NUMERIC(19, 2) NOT NULL,
+    total_deductions NUMERIC(19, 2) NOT NULL,
+    net_pay NUMERIC(19, 2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_payroll_ytd PRIMARY KEY (employee_id, pay_year),
+    CONSTRAINT fk_payroll_ytd_employee FOREIGN KEY (employee_id) REFERENCES employee(id)
+);
+
+-- Backfill from the payrolls generated so far
+INSERT INTO payroll_ytd (employee_id, pay_year, payroll_count, gross_pay, total_benefits,
+                         sss, philhealth, pagibig, withholding_tax, total_deductions, net_pay, updated_at)
+SELECT p.employee_id, EXTRACT(YEAR FROM p.pay_date)::INTEGER, COUNT(*),
+       COALESCE(SUM(p.gross_pay), 0), COALESCE(SUM(p.total_benefits), 0),
+       COALESCE(SUM(d.sss), 0), COALESCE(SUM(d.phic), 0), COALESCE(SUM(d.hdmf), 0), COALESCE(SUM(d.tax), 0),
+       COALESCE(SUM(p.total_deductions), 0), COALESCE(SUM(p.net_pay), 0), CURRENT_TIMESTAMP
+FROM payroll p
+LEFT JOIN LATERAL (
+    SELECT SUM(amount) FILTER (WHERE deduction_code = 'SSS') AS sss,
+           SUM(amount) FILTER (WHERE deduction_code = 'PHIC') AS phic,
+           SUM(amount) FILTER (WHERE deduction_code = 'HDMF') AS hdmf,
+           SUM(amount) FILTER (WHERE deduction_code = 'TAX') AS tax
+    FROM deduction
+    WHERE payroll_id = p.id
+) d ON TRUE
+WHERE p.pay_date IS NOT NULL
+GROUP BY p.employee_id, EXTRACT(YEAR FROM p.pay_date);
@@ -0,0 +1,8 @@
+-- Supervisor references of the employees inserted by an import job instance, staged by the import step and
+-- applied with one UPDATE once the whole file is in, so a supervisor may appear anywhere in the file
+CREATE TABLE IF NOT EXISTS employee_import_supervisor (
+    job_instance_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    supervisor_id BIGINT NOT NULL,
+    CONSTRAINT pk_employee_import_supervisor PRIMARY KEY (job_instance_id, employee_id)
+);
@@ -0,0 +1,30 @@
+-- Keys the upsert import mode resolves conflicts on: one government ID row per employee,
+-- and one benefit per employee and benefit type
+
+-- Keep the latest live row of existing duplicates so the constraints can be added
+DELETE FROM government_id
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id, ROW_NUMBER() OVER (
+            PARTITION BY employee_id
+            ORDER BY deleted_at DESC NULLS FIRST, COALESCE(updated_at, created_at) DESC, id DESC
+        ) AS row_number
+        FROM government_id
+    ) ranked
+    WHERE row_number > 1
+);
+
+DELETE FROM benefit
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id, ROW_NUMBER() OVER (
+            PARTITION BY employee_id, benefit_type_id
+            ORDER BY deleted_at DESC NULLS FIRST, COALESCE(updated_at, created_at) DESC, id DESC
+        ) AS row_number
+        FROM benefit
+    ) ranked
+    WHERE row_number > 1
+);
+
+ALTER TABLE government_id ADD CONSTRAINT uk_government_id_employee UNIQUE (employee_id);
+ALTER TABLE benefit ADD CONSTRAINT uk_benefit_employee_type UNIQUE (employee_id, benefit_type_id);
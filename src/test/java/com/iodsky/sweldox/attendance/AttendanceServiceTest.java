@@ -11,6 +11,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +34,7 @@ class AttendanceServiceTest {
     @Mock private EmployeeService employeeService;
     @Mock private UserService userService;
     @Mock private DateRangeResolver dateRangeResolver;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private AttendanceService attendanceService;
 
     private User hrUser;
@@ -259,6 +261,47 @@ class AttendanceServiceTest {
             verify(attendanceRepository).save(existing);
         }
 
+        @Test
+        void shouldPublishChangesOfOldAndNewDateWhenHrMovesAttendance() {
+            when(userService.getAuthenticatedUser()).thenReturn(hrUser);
+            Attendance existing = Attendance.builder()
+                    .id(UUID.randomUUID())
+                    .employee(currentEmployee)
+                    .date(TODAY)
+                    .timeIn(SHIFT_START)
+                    .timeOut(SHIFT_END)
+                    .build();
+
+            LocalDate correctedDate = TODAY.minusDays(1);
+            dto.setDate(correctedDate);
+
+            when(attendanceRepository.findById(any(UUID.class))).thenReturn(Optional.of(existing));
+            when(attendanceRepository.save(any())).thenReturn(existing);
+
+            attendanceService.updateAttendance(existing.getId(), dto);
+
+            verify(eventPublisher).publishEvent(new AttendanceChangedEvent(1L, TODAY));
+            verify(eventPublisher).publishEvent(new AttendanceChangedEvent(1L, correctedDate));
+        }
+
+        @Test
+        void shouldNotPublishChangeWhenUpdateIsRejected() {
+            when(userService.getAuthenticatedUser()).thenReturn(normalUser);
+            Attendance existing = Attendance.builder()
+                    .id(UUID.randomUUID())
+                    .employee(currentEmployee)
+                    .date(TODAY)
+                    .timeIn(SHIFT_START)
+                    .timeOut(LocalTime.MIN)
+                    .build();
+
+            when(attendanceRepository.findById(any(UUID.class))).thenReturn(Optional.of(existing));
+
+            assertThrows(ResponseStatusException.class, () -> attendanceService.updateAttendance(existing.getId(), dto));
+
+            verifyNoInteractions(eventPublisher);
+        }
+
         @Test
         void shouldThrowForbiddenWhenNonHrTriesToEditAttendanceManually() {
             when(userService.getAuthenticatedUser()).thenReturn(normalUser);
@@ -510,6 +553,36 @@ class AttendanceServiceTest {
             assertEquals(1, result.size());
             verify(attendanceRepository).findByEmployee_IdAndDateBetween(eq(1L), eq(TODAY), eq(TODAY.plusDays(1)));
         }
+
+        @Test
+        void shouldReturnEmptySummaryWhenEmployeeHasNoAttendance() {
+            when(attendanceRepository.summarizeByEmployeeIdAndDateBetween(1L, TODAY, TODAY.plusDays(1)))
+                    .thenReturn(Optional.empty());
+
+            AttendanceSummary result = attendanceService.getEmployeeAttendanceSummary(1L, TODAY, TODAY.plusDays(1));
+
+            assertEquals(0, result.totalHours().compareTo(BigDecimal.ZERO));
+            assertEquals(0, result.overtimeHours().compareTo(BigDecimal.ZERO));
+            assertEquals(0L, result.daysWorked());
+            assertNull(result.firstDate());
+        }
+
+        @Test
+        void shouldSummarizeBulkAttendancesInOneQuery() {
+            AttendanceSummary summary = new AttendanceSummary(
+                    1L, new BigDecimal("17.50"), new BigDecimal("1.50"), 2L, TODAY, TODAY.plusDays(1));
+            List<Long> employeeIds = List.of(1L, 2L);
+
+            when(attendanceRepository.summarizeByEmployeeIdsAndDateBetween(employeeIds, TODAY, TODAY.plusDays(1)))
+                    .thenReturn(List.of(summary));
+
+            Map<Long, AttendanceSummary> result = attendanceService.getEmployeeAttendanceSummaries(employeeIds, TODAY, TODAY.plusDays(1));
+
+            assertEquals(summary, result.get(1L));
+            assertEquals(0L, result.get(2L).daysWorked());
+            verify(attendanceRepository, times(1)).summarizeByEmployeeIdsAndDateBetween(any(), any(), any());
+            verifyNoMoreInteractions(attendanceRepository);
+        }
     }
 
 }
@@ -0,0 +1,182 @@
+package com.iodsky.sweldox.batch;
+
+import com.iodsky.sweldox.batch.response.ImportUploadResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportUploadServiceTest {
+
+    private static final String FILE_NAME = "employees.csv";
+    private static final String HEADER = "employee_id,last_name\n";
+    private static final String ROWS = "10001,Garcia\n10002,Lim\n";
+
+    @TempDir
+    private Path uploadDirectory;
+
+    private ImportUploadService importUploadService;
+
+    @BeforeEach
+    void setUp() {
+        importUploadService = new ImportUploadService();
+        ReflectionTestUtils.setField(importUploadService, "uploadDirectory", uploadDirectory.toString());
+        ReflectionTestUtils.setField(importUploadService, "maxFileSize", DataSize.ofBytes(64));
+        ReflectionTestUtils.setField(importUploadService, "expiry", Duration.ofHours(24));
+    }
+
+    @Nested
+    class AppendChunkTests {
+
+        @Test
+        void shouldAppendChunksAtTheReceivedOffset() throws IOException {
+            UUID uploadId = importUploadService.startUpload(FILE_NAME).getUploadId();
+
+            importUploadService.appendChunk(uploadId, 0, chunk(HEADER));
+            ImportUploadResponse response = importUploadService.appendChunk(uploadId, HEADER.length(), chunk(ROWS));
+
+            assertEquals(FILE_NAME, response.getFileName());
+            assertEquals(HEADER.length() + ROWS.length(), response.getOffset());
+        }
+
+        @Test
+        void shouldThrowConflictWhenOffsetDoesNotMatch() throws IOException {
+            UUID uploadId = importUploadService.startUpload(FILE_NAME).getUploadId();
+            importUploadService.appendChunk(uploadId, 0, chunk(HEADER));
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> importUploadService.appendChunk(uploadId, 0, chunk(ROWS)));
+
+            assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+            assertEquals(HEADER.length(), importUploadService.getUpload(uploadId).getOffset());
+        }
+
+        @Test
+        void shouldTruncateToChunkStartWhenSizeLimitIsExceeded() throws IOException {
+            // Larger than the copy buffer, so part of the chunk is written before the limit is hit
+            ReflectionTestUtils.setField(importUploadService, "maxFileSize", DataSize.ofKilobytes(100));
+            UUID uploadId = importUploadService.startUpload(FILE_NAME).getUploadId();
+            importUploadService.appendChunk(uploadId, 0, chunk(HEADER));
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> importUploadService.appendChunk(uploadId, HEADER.length(), chunk(ROWS.repeat(8192))));
+
+            assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, ex.getStatusCode());
+            assertEquals(HEADER.length(), importUploadService.getUpload(uploadId).getOffset());
+        }
+
+        @Test
+        void shouldThrowConflictWhenAnotherChunkIsBeingWritten() throws IOException {
+            UUID uploadId = importUploadService.startUpload(FILE_NAME).getUploadId();
+            Path partialFile = uploadDirectory.resolve("chunked").resolve(uploadId.toString()).resolve(FILE_NAME);
+
+            try (FileChannel channel = FileChannel.open(partialFile, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                        () -> importUploadService.appendChunk(uploadId, 0, chunk(HEADER)));
+
+                assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+            }
+
+            assertEquals(0, importUploadService.getUpload(uploadId).getOffset());
+        }
+    }
+
+    @Nested
+    class CompleteUploadTests {
+
+        @Test
+        void shouldStoreUploadsOfSameFileUnderDifferentNames() throws IOException {
+            String first = importUploadService.completeUpload(upload(HEADER + ROWS));
+            String second = importUploadService.completeUpload(upload(HEADER));
+
+            assertNotEquals(first, second);
+            assertEquals(HEADER + ROWS, Files.readString(uploadDirectory.resolve(first)));
+            assertEquals(HEADER, Files.readString(uploadDirectory.resolve(second)));
+        }
+
+        @Test
+        void shouldThrowBadRequestWhenUploadIsEmpty() throws IOException {
+            UUID uploadId = importUploadService.startUpload(FILE_NAME).getUploadId();
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> importUploadService.completeUpload(uploadId));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        }
+    }
+
+    @Nested
+    class RestoreUploadTests {
+
+        @Test
+        void shouldRestoreCompletedUploadToBeCompletedAgain() throws IOException {
+            UUID uploadId = upload(HEADER + ROWS);
+            String fileName = importUploadService.completeUpload(uploadId);
+
+            importUploadService.restoreUpload(uploadId, fileName);
+
+            ImportUploadResponse response = importUploadService.getUpload(uploadId);
+            assertEquals(FILE_NAME, response.getFileName());
+            assertEquals(HEADER.length() + ROWS.length(), response.getOffset());
+            assertFalse(Files.exists(uploadDirectory.resolve(fileName)));
+
+            String completedAgain = importUploadService.completeUpload(uploadId);
+            assertEquals(HEADER + ROWS, Files.readString(uploadDirectory.resolve(completedAgain)));
+        }
+    }
+
+    @Nested
+    class ExpiryTests {
+
+        @Test
+        void shouldRemoveExpiredUploadsWhenNewOneStarts() throws IOException {
+            UUID expired = upload(HEADER);
+            UUID recent = upload(HEADER);
+            touch(expired, Instant.now().minus(Duration.ofHours(25)));
+
+            importUploadService.startUpload(FILE_NAME);
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> importUploadService.getUpload(expired));
+            assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+            assertEquals(HEADER.length(), importUploadService.getUpload(recent).getOffset());
+        }
+    }
+
+    private UUID upload(String content) throws IOException {
+        UUID uploadId = importUploadService.startUpload(FILE_NAME).getUploadId();
+        importUploadService.appendChunk(uploadId, 0, chunk(content));
+        return uploadId;
+    }
+
+    private void touch(UUID uploadId, Instant lastModified) throws IOException {
+        Path directory = uploadDirectory.resolve("chunked").resolve(uploadId.toString());
+        Files.setLastModifiedTime(directory.resolve(FILE_NAME), FileTime.from(lastModified));
+        Files.setLastModifiedTime(directory, FileTime.from(lastModified));
+    }
+
+    private static ByteArrayInputStream chunk(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
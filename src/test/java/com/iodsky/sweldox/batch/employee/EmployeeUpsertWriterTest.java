@@ -0,0 +1,72 @@
+package com.iodsky.sweldox.batch.employee;
+
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.employee.GovernmentId;
+import com.iodsky.sweldox.employee.Status;
+import com.iodsky.sweldox.security.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.Chunk;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeUpsertWriterTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private AuditorAware<User> auditorProvider;
+
+    private EmployeeUpsertWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new EmployeeUpsertWriter(jdbcTemplate, auditorProvider);
+        when(auditorProvider.getCurrentAuditor()).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteLastRowOfDuplicateSssNumberInChunk() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2))).thenReturn(List.of(10001L, 10002L));
+
+        Employee first = employee("Juan", "34-1234567-8");
+        Employee second = employee("Maria", "34-1234567-8");
+
+        writer.write(Chunk.of(first, second));
+
+        ArgumentCaptor<List<Object[]>> employeeRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO employee "), employeeRows.capture());
+        ArgumentCaptor<List<Object[]>> governmentIdRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO government_id "), governmentIdRows.capture());
+
+        assertEquals(1, employeeRows.getValue().size());
+        assertEquals(10001L, employeeRows.getValue().get(0)[0]);
+        assertEquals("Maria", employeeRows.getValue().get(0)[1]);
+        assertEquals(1, governmentIdRows.getValue().size());
+        assertEquals(10001L, first.getId());
+        assertEquals(10001L, second.getId());
+    }
+
+    private Employee employee(String firstName, String sssNumber) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName("Dela Cruz")
+                .status(Status.REGULAR)
+                .governmentId(GovernmentId.builder().sssNumber(sssNumber).build())
+                .benefits(new ArrayList<>())
+                .build();
+    }
+
+}
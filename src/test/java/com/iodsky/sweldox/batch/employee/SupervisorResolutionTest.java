@@ -0,0 +1,171 @@
+package com.iodsky.sweldox.batch.employee;
+
+import com.iodsky.sweldox.batch.ImportJobExecutionListener;
+import com.iodsky.sweldox.employee.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Runs both passes of the employee import against an in-memory database, whose employee table rejects
+ * a supervisor that does not exist yet, like the real one.
+ */
+class SupervisorResolutionTest {
+
+    private static final long JOB_INSTANCE_ID = 7L;
+
+    private JdbcTemplate jdbcTemplate;
+    private EmployeeImportWriter employeeImportWriter;
+    private SupervisorResolutionTasklet supervisorResolutionTasklet;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+        jdbcTemplate.execute("""
+                CREATE TABLE employee (
+                    id BIGINT PRIMARY KEY,
+                    supervisor_id BIGINT REFERENCES employee (id),
+                    updated_at TIMESTAMP,
+                    version BIGINT
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE employee_import_supervisor (
+                    job_instance_id BIGINT NOT NULL,
+                    employee_id BIGINT NOT NULL,
+                    supervisor_id BIGINT NOT NULL,
+                    PRIMARY KEY (job_instance_id, employee_id)
+                )
+                """);
+
+        // The in-memory database has no ON CONFLICT, the references of these files never conflict
+        doAnswer(invocation -> jdbcTemplate.batchUpdate(
+                "INSERT INTO employee_import_supervisor VALUES (?, ?, ?)",
+                invocation.<List<Object[]>>getArgument(1)))
+                .when(jdbcTemplate).batchUpdate(startsWith("INSERT INTO employee_import_supervisor ("), anyList());
+
+        ItemWriter<Employee> employeeWriter = chunk -> jdbcTemplate.batchUpdate(
+                "INSERT INTO employee (id, supervisor_id, version) VALUES (?, ?, 0)",
+                chunk.getItems().stream()
+                        .map(employee -> new Object[]{employee.getId(),
+                                employee.getSupervisor() != null ? employee.getSupervisor().getId() : null})
+                        .toList());
+
+        employeeImportWriter = new EmployeeImportWriter(jdbcTemplate, employeeWriter, JOB_INSTANCE_ID);
+        supervisorResolutionTasklet = new SupervisorResolutionTasklet(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Nested
+    class ResolveTests {
+
+        @Test
+        void shouldResolveSupervisorDefinedLaterInFile() throws Exception {
+            employeeImportWriter.write(Chunk.of(employee(10001L, 10003L), employee(10002L, 10001L)));
+            employeeImportWriter.write(Chunk.of(employee(10003L, null)));
+
+            supervisorResolutionTasklet.resolve(JOB_INSTANCE_ID);
+
+            assertEquals(10003L, supervisorOf(10001L));
+            assertEquals(10001L, supervisorOf(10002L));
+            assertNull(supervisorOf(10003L));
+            assertEquals(0, stagedReferences());
+        }
+
+        @Test
+        void shouldLeaveMissingSupervisorUnset() throws Exception {
+            employeeImportWriter.write(Chunk.of(employee(10001L, 99999L), employee(10002L, 10001L)));
+
+            supervisorResolutionTasklet.resolve(JOB_INSTANCE_ID);
+
+            assertNull(supervisorOf(10001L));
+            assertEquals(10001L, supervisorOf(10002L));
+            assertEquals(0, stagedReferences());
+        }
+
+        @Test
+        void shouldOnlyResolveReferencesOfGivenJobInstance() throws Exception {
+            employeeImportWriter.write(Chunk.of(employee(10001L, null), employee(10002L, 10001L)));
+
+            supervisorResolutionTasklet.resolve(JOB_INSTANCE_ID + 1);
+
+            assertNull(supervisorOf(10002L));
+            assertEquals(1, stagedReferences());
+        }
+    }
+
+    @Nested
+    class JobEndTests {
+
+        @TempDir
+        private Path uploadDirectory;
+
+        @Test
+        void shouldResolveStagedSupervisorsWhenJobFails() throws Exception {
+            Path file = Files.writeString(uploadDirectory.resolve("employees.csv"), "employee_id\n");
+            ImportJobExecutionListener listener = new ImportJobExecutionListener(supervisorResolutionTasklet);
+            ReflectionTestUtils.setField(listener, "uploadDirectory", uploadDirectory.toString());
+
+            // A chunk committed before the step failed, with a supervisor written in the same chunk
+            employeeImportWriter.write(Chunk.of(employee(10002L, 10001L), employee(10001L, null)));
+
+            listener.afterJob(failedJobExecution(file));
+
+            assertEquals(10001L, supervisorOf(10002L));
+            assertEquals(0, stagedReferences());
+            assertFalse(Files.exists(file));
+        }
+
+        private JobExecution failedJobExecution(Path file) {
+            JobExecution jobExecution = new JobExecution(
+                    new JobInstance(JOB_INSTANCE_ID, EmployeeImportJobConfig.JOB_NAME), 1L,
+                    new JobParametersBuilder().addString("fileName", file.getFileName().toString()).toJobParameters());
+            jobExecution.setStatus(BatchStatus.FAILED);
+            return jobExecution;
+        }
+    }
+
+    private Long supervisorOf(Long employeeId) {
+        return jdbcTemplate.queryForObject("SELECT supervisor_id FROM employee WHERE id = ?", Long.class, employeeId);
+    }
+
+    private int stagedReferences() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee_import_supervisor", Integer.class);
+    }
+
+    private static Employee employee(Long id, Long supervisorId) {
+        return Employee.builder()
+                .id(id)
+                .supervisor(supervisorId != null ? Employee.builder().id(supervisorId).build() : null)
+                .build();
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.iodsky.sweldox.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void shouldMatchHashSetForRandomValues() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42L);
+
+        for (int i = 0; i < 50_000; i++) {
+            long value = random.nextLong(-1_000, 100_000);
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = -1_000; value < 100_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "value " + value);
+        }
+    }
+
+    @Test
+    void shouldTrackZeroSeparately() {
+        LongHashSet set = LongHashSet.of(List.of(0L, 7L));
+
+        assertTrue(set.contains(0L));
+        assertFalse(set.add(0L));
+        assertEquals(2, set.size());
+        assertFalse(new LongHashSet().contains(0L));
+    }
+
+}
@@ -24,8 +24,10 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -96,6 +98,17 @@ class EmployeeServiceTest {
             assertNull(result.getSupervisor());
         }
 
+        @Test
+        void shouldThrowBadRequestWhenBenefitTypeIsDuplicated() {
+            request.setBenefits(Map.of("RICE", BigDecimal.valueOf(1500), "rice ", BigDecimal.valueOf(2000)));
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> employeeService.createEmployee(request));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+            verify(employeeRepository, never()).save(any(Employee.class));
+        }
+
         @Test
         void shouldThrowDuplicateFieldExceptionWhenDuplicateKeyDetected() {
             when(employeeMapper.toEntity(request)).thenReturn(employee);
@@ -260,6 +273,17 @@ class EmployeeServiceTest {
             assertThrows(DuplicateFieldException.class, () -> employeeService.updateEmployeeById(1L, request));
         }
 
+        @Test
+        void shouldThrowBadRequestWhenUpdatingWithDuplicateBenefitType() {
+            request.setBenefits(Map.of("RICE", BigDecimal.valueOf(1500), "Rice", BigDecimal.valueOf(2000)));
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> employeeService.updateEmployeeById(1L, request));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+            verify(employeeRepository, never()).save(any(Employee.class));
+        }
+
         @Test
         void shouldThrowNotFoundWhenUpdatingNonexistentEmployee() {
             when(employeeRepository.findById(99L)).thenReturn(Optional.empty());
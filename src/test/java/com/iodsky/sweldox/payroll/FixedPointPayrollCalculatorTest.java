@@ -0,0 +1,256 @@
+package com.iodsky.sweldox.payroll;
+
+import com.iodsky.sweldox.attendance.AttendanceService;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.employee.EmployeeService;
+import com.iodsky.sweldox.payroll.benefit.Benefit;
+import com.iodsky.sweldox.payroll.contribution.pagIbig.PagibigContribution;
+import com.iodsky.sweldox.payroll.contribution.philhealth.PhilhealthContribution;
+import com.iodsky.sweldox.payroll.contribution.sss.SssBracketIndex;
+import com.iodsky.sweldox.payroll.contribution.sss.SssContribution;
+import com.iodsky.sweldox.payroll.core.*;
+import com.iodsky.sweldox.payroll.deduction.Deduction;
+import com.iodsky.sweldox.payroll.deduction.DeductionType;
+import com.iodsky.sweldox.payroll.deduction.DeductionTypeCache;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxBracket;
+import com.iodsky.sweldox.payroll.tax.IncomeTaxTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property based equivalence of the centavo engine and the BigDecimal {@link PayrollCalculator}.
+ */
+@ExtendWith(MockitoExtension.class)
+class FixedPointPayrollCalculatorTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2025, 1, 15);
+    private static final LocalDate PAY_DATE = LocalDate.of(2025, 1, 20);
+
+    @Mock private EmployeeService employeeService;
+    @Mock private AttendanceService attendanceService;
+    @Mock private DeductionTypeCache deductionTypeCache;
+    @Mock private PayrollConfigurationCache payrollConfigurationCache;
+
+    private final FixedPointPayrollCalculator fixedPointPayrollCalculator = new FixedPointPayrollCalculator();
+    private final PayrollMetrics payrollMetrics = new PayrollMetrics(new SimpleMeterRegistry(), 1);
+    private PayrollBuilder fixedPointBuilder;
+    private PayrollBuilder bigDecimalBuilder;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        PayrollCalculator payrollCalculator = new PayrollCalculator(payrollConfigurationCache, payrollMetrics);
+
+        fixedPointBuilder = new PayrollBuilder(employeeService, attendanceService, deductionTypeCache, payrollCalculator, fixedPointPayrollCalculator, payrollMetrics);
+        bigDecimalBuilder = new PayrollBuilder(employeeService, attendanceService, deductionTypeCache, payrollCalculator, fixedPointPayrollCalculator, payrollMetrics);
+        ReflectionTestUtils.setField(fixedPointBuilder, "fixedPointEnabled", true);
+        ReflectionTestUtils.setField(bigDecimalBuilder, "fixedPointEnabled", false);
+
+        lenient().when(deductionTypeCache.getByCode(anyString()))
+                .thenAnswer(invocation -> DeductionType.builder().code(invocation.getArgument(0)).build());
+
+        random = new Random(20250115L);
+    }
+
+    @Test
+    void shouldMatchBigDecimalCalculatorForRandomPayrolls() {
+        int calculated = 0;
+
+        for (int c = 0; c < 200; c++) {
+            PayrollConfiguration config = randomConfiguration();
+            assertNotNull(config.getFixedPointRates());
+
+            for (int e = 0; e < 50; e++) {
+                Employee employee = randomEmployee();
+                AttendanceSummary summary = randomSummary(employee.getId());
+                when(employeeService.getEmployeeById(employee.getId())).thenReturn(employee);
+
+                if (assertEquivalent(config, summary, employee)) {
+                    assertNotNull(fixedPointPayrollCalculator.calculate(employee.getHourlyRate(), employee.getBasicSalary(),
+                            summary, employee.getBenefits(), config.getFixedPointRates()), "fixed point engine fell back");
+                    calculated++;
+                }
+            }
+        }
+
+        // Negative taxable incomes have no tax bracket and fail in both engines
+        assertTrue(calculated > 5_000, "only " + calculated + " payrolls were calculated");
+    }
+
+    @Test
+    void shouldFallBackForFractionOfCentavoInputs() {
+        PayrollConfiguration config = randomConfiguration();
+        Employee employee = randomEmployee();
+        employee.setHourlyRate(new BigDecimal("187.505"));
+        AttendanceSummary summary = new AttendanceSummary(employee.getId(), new BigDecimal("80.125"), new BigDecimal("4.5"), 10L, null, null);
+        when(employeeService.getEmployeeById(employee.getId())).thenReturn(employee);
+
+        assertNull(fixedPointPayrollCalculator.calculate(employee.getHourlyRate(), employee.getBasicSalary(),
+                summary, employee.getBenefits(), config.getFixedPointRates()));
+        assertEquivalent(config, summary, employee);
+    }
+
+    @Test
+    void shouldThrowTheSameErrorWhenNoTaxBracketApplies() {
+        PayrollConfiguration config = randomConfiguration();
+        Employee employee = randomEmployee();
+        employee.setBasicSalary(new BigDecimal("90000.00"));
+        AttendanceSummary summary = AttendanceSummary.empty(employee.getId());
+        when(employeeService.getEmployeeById(employee.getId())).thenReturn(employee);
+
+        // Statutory deductions exceed the zero gross pay, leaving a negative taxable income
+        assertFalse(assertEquivalent(config, summary, employee));
+    }
+
+    /**
+     * Assert both engines build the same payroll or fail with the same error, returning whether a payroll was built.
+     */
+    private boolean assertEquivalent(PayrollConfiguration config, AttendanceSummary summary, Employee employee) {
+        Payroll expected;
+        try {
+            expected = bigDecimalBuilder.buildPayroll(employee.getId(), PERIOD_START, PERIOD_END, PAY_DATE, config, summary);
+        } catch (RuntimeException bigDecimalError) {
+            RuntimeException fixedPointError = assertThrows(RuntimeException.class,
+                    () -> fixedPointBuilder.buildPayroll(employee.getId(), PERIOD_START, PERIOD_END, PAY_DATE, config, summary));
+            assertEquals(bigDecimalError.getClass(), fixedPointError.getClass());
+            assertEquals(bigDecimalError.getMessage(), fixedPointError.getMessage());
+            return false;
+        }
+
+        Payroll actual = fixedPointBuilder.buildPayroll(employee.getId(), PERIOD_START, PERIOD_END, PAY_DATE, config, summary);
+        String context = "salary " + employee.getBasicSalary() + ", rate " + employee.getHourlyRate() + ", " + summary;
+
+        assertEquals(expected.getGrossPay(), actual.getGrossPay(), context);
+        assertEquals(0, expected.getTotalBenefits().compareTo(actual.getTotalBenefits()), context);
+        assertEquals(expected.getTotalDeductions(), actual.getTotalDeductions(), context);
+        assertEquals(expected.getNetPay(), actual.getNetPay(), context);
+        assertEquals(expected.getDailyRate(), actual.getDailyRate(), context);
+        assertEquals(expected.getDeductions().size(), actual.getDeductions().size());
+        for (int i = 0; i < expected.getDeductions().size(); i++) {
+            Deduction expectedDeduction = expected.getDeductions().get(i);
+            Deduction actualDeduction = actual.getDeductions().get(i);
+            assertEquals(expectedDeduction.getDeductionType().getCode(), actualDeduction.getDeductionType().getCode());
+            assertEquals(expectedDeduction.getAmount(), actualDeduction.getAmount(), context);
+        }
+        return true;
+    }
+
+    private PayrollConfiguration randomConfiguration() {
+        PhilhealthContribution philhealth = PhilhealthContribution.builder()
+                .premiumRate(rate(100, 600))
+                .minSalaryFloor(new BigDecimal("10000.00"))
+                .maxSalaryCap(new BigDecimal("100000.00"))
+                .fixedContribution(money(20_000, 60_001))
+                .build();
+
+        PagibigContribution pagibig = PagibigContribution.builder()
+                .employeeRate(rate(100, 300))
+                .lowIncomeEmployeeRate(rate(50, 200))
+                .lowIncomeThreshold(new BigDecimal("1500.00"))
+                .maxSalaryCap(new BigDecimal("10000.00"))
+                .build();
+
+        SssContribution sss = SssContribution.builder()
+                .employeeRate(rate(300, 600))
+                .salaryBrackets(sssTable())
+                .build();
+        SssBracketIndex sssBracketIndex = SssBracketIndex.compile(sss);
+
+        IncomeTaxTable incomeTaxTable = IncomeTaxTable.compile(List.of(
+                taxBracket("0", "20832", "0", 0),
+                taxBracket("20833", "33332", "0", random.nextInt(1000, 2500)),
+                taxBracket("33333", "66666", "1875.00", random.nextInt(1000, 2500)),
+                taxBracket("66667", "166666", "8541.80", random.nextInt(2000, 3000)),
+                taxBracket("166667", "666666", "33541.80", random.nextInt(2500, 3500)),
+                taxBracket("666667", null, "183541.80", random.nextInt(3000, 3600))));
+
+        return PayrollConfiguration.builder()
+                .philhealthContribution(philhealth)
+                .pagibigContribution(pagibig)
+                .sssContribution(sss)
+                .sssBracketIndex(sssBracketIndex)
+                .incomeTaxBrackets(incomeTaxTable.getBrackets())
+                .incomeTaxTable(incomeTaxTable)
+                .fixedPointRates(FixedPointRates.compile(philhealth, pagibig, sssBracketIndex, incomeTaxTable))
+                .build();
+    }
+
+    private Employee randomEmployee() {
+        List<Benefit> benefits = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            benefits.add(Benefit.builder().amount(money(0, 500_000)).build());
+        }
+
+        return Employee.builder()
+                .id(random.nextLong(1, 100_000))
+                .basicSalary(randomSalary())
+                .hourlyRate(money(5_000, 200_000))
+                .benefits(benefits)
+                .build();
+    }
+
+    // Mostly uniform salaries, with a share landing on the contribution boundaries
+    private BigDecimal randomSalary() {
+        if (random.nextInt(5) == 0) {
+            long[] boundaries = {150_000, 1_000_000, 10_000_000, 524_999, 525_000, 3_475_000};
+            return BigDecimal.valueOf(boundaries[random.nextInt(boundaries.length)] + random.nextInt(-1, 2), 2);
+        }
+        return money(0, 20_000_000);
+    }
+
+    private AttendanceSummary randomSummary(Long employeeId) {
+        long totalHours = random.nextLong(0, 20_001);
+        long overtimeHours = random.nextLong(0, Math.min(totalHours, 4_000) + 1);
+
+        return new AttendanceSummary(employeeId, BigDecimal.valueOf(totalHours, 2), BigDecimal.valueOf(overtimeHours, 2),
+                totalHours / 800, null, null);
+    }
+
+    private IncomeTaxBracket taxBracket(String min, String max, String baseTax, int rateUnits) {
+        return IncomeTaxBracket.builder()
+                .minIncome(new BigDecimal(min))
+                .maxIncome(max == null ? null : new BigDecimal(max))
+                .baseTax(new BigDecimal(baseTax))
+                .marginalRate(BigDecimal.valueOf(rateUnits, 4))
+                .threshold(new BigDecimal(min))
+                .build();
+    }
+
+    private BigDecimal money(long minCents, long maxCents) {
+        return BigDecimal.valueOf(random.nextLong(minCents, maxCents), 2);
+    }
+
+    private BigDecimal rate(int minUnits, int maxUnits) {
+        return BigDecimal.valueOf(random.nextInt(minUnits, maxUnits), 4);
+    }
+
+    private static List<SssContribution.SalaryBracket> sssTable() {
+        List<SssContribution.SalaryBracket> brackets = new ArrayList<>();
+        brackets.add(new SssContribution.SalaryBracket(BigDecimal.ZERO, new BigDecimal("5249.99"), new BigDecimal("5000")));
+        for (int msc = 5_500; msc < 35_000; msc += 500) {
+            brackets.add(new SssContribution.SalaryBracket(
+                    BigDecimal.valueOf(msc - 250), new BigDecimal((msc + 249) + ".99"), BigDecimal.valueOf(msc)));
+        }
+        brackets.add(new SssContribution.SalaryBracket(new BigDecimal("34750"), null, new BigDecimal("35000")));
+        return brackets;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.iodsky.sweldox.payroll;
+
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.payroll.benefit.BenefitType;
+import com.iodsky.sweldox.payroll.core.*;
+import com.iodsky.sweldox.payroll.deduction.Deduction;
+import com.iodsky.sweldox.payroll.deduction.DeductionType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the number of SQL statements behind a page of the payroll listing endpoints, which map every
+ * payroll with its employee, deductions and benefits. It must not grow with the page size.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        // The SSS brackets column is PostgreSQL jsonb
+        "spring.datasource.url=jdbc:h2:mem:payroll;MODE=PostgreSQL;INIT=CREATE DOMAIN IF NOT EXISTS jsonb AS JSON"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PayrollListingQueryCountTest {
+
+    private static final LocalDate FIRST_PERIOD_START = LocalDate.of(2025, 11, 1);
+    private static final LocalDate SECOND_PERIOD_START = LocalDate.of(2025, 11, 16);
+    private static final int EMPLOYEES = 12;
+
+    // Page select, count, then one batch per collection
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PayrollRepository payrollRepository;
+
+    private final PayrollMapper payrollMapper = new PayrollMapper();
+    private Statistics statistics;
+    private Long firstEmployeeId;
+
+    @BeforeEach
+    void setUp() {
+        List<DeductionType> deductionTypes = new ArrayList<>();
+        for (String code : List.of("SSS", "PHIC", "HDMF", "TAX")) {
+            deductionTypes.add(entityManager.persist(DeductionType.builder().code(code).type(code).build()));
+        }
+        BenefitType meal = entityManager.persist(BenefitType.builder().id("MEAL").type("Meal Allowance").build());
+        BenefitType phone = entityManager.persist(BenefitType.builder().id("PHONE").type("Phone Allowance").build());
+
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Employee");
+            employee.setLastName(String.valueOf(i));
+            employee.setBasicSalary(new BigDecimal("30000.00"));
+            employee.setHourlyRate(new BigDecimal("178.57"));
+            entityManager.persist(employee);
+            if (firstEmployeeId == null) {
+                firstEmployeeId = employee.getId();
+            }
+
+            for (LocalDate periodStart : List.of(FIRST_PERIOD_START, SECOND_PERIOD_START)) {
+                entityManager.persist(payroll(employee, periodStart, deductionTypes, List.of(meal, phone)));
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldListPayrollPageWithConstantStatements() {
+        Page<Payroll> page = payrollRepository.findAllByPeriodStartDateBetween(
+                FIRST_PERIOD_START, SECOND_PERIOD_START, PageRequest.of(0, 20));
+        List<PayrollDto> payrolls = page.getContent().stream().map(payrollMapper::toDto).toList();
+
+        assertEquals(20, payrolls.size());
+        assertEquals(2 * EMPLOYEES, page.getTotalElements());
+        page.getContent().forEach(this::assertFullyMapped);
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Listing a page of payrolls took " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void shouldListEmployeePayrollPageWithConstantStatements() {
+        Page<Payroll> page = payrollRepository.findAllByEmployee_IdAndPeriodStartDateBetween(
+                firstEmployeeId, FIRST_PERIOD_START, SECOND_PERIOD_START, PageRequest.of(0, 10));
+        List<PayrollDto> payrolls = page.getContent().stream().map(payrollMapper::toDto).toList();
+
+        assertEquals(2, payrolls.size());
+        assertEquals(firstEmployeeId, payrolls.getFirst().getEmployeeId());
+        page.getContent().forEach(this::assertFullyMapped);
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Listing a page of employee payrolls took " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    private void assertFullyMapped(Payroll payroll) {
+        assertEquals(4, payroll.getDeductions().size());
+        assertEquals(2, payroll.getBenefits().size());
+    }
+
+    private static Payroll payroll(Employee employee, LocalDate periodStart, List<DeductionType> deductionTypes,
+                                   List<BenefitType> benefitTypes) {
+        Payroll payroll = Payroll.builder()
+                .employee(employee)
+                .periodStartDate(periodStart)
+                .periodEndDate(periodStart.plusDays(14))
+                .payDate(periodStart.plusDays(19))
+                .grossPay(new BigDecimal("15000.00"))
+                .deductions(new ArrayList<>())
+                .benefits(new ArrayList<>())
+                .build();
+
+        for (DeductionType type : deductionTypes) {
+            BigDecimal amount = type.getCode().equals("TAX") ? new BigDecimal("1500.00") : new BigDecimal("1200.00");
+            payroll.getDeductions().add(Deduction.builder().payroll(payroll).deductionType(type).amount(amount).build());
+        }
+        for (BenefitType type : benefitTypes) {
+            payroll.getBenefits().add(PayrollBenefit.builder().payroll(payroll).benefitType(type).amount(new BigDecimal("1000.00")).build());
+        }
+
+        return payroll;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.iodsky.sweldox.payroll;
+
+import com.iodsky.sweldox.payroll.core.PayrollMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayrollMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PayrollMetrics payrollMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        payrollMetrics = new PayrollMetrics(meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        StepSynchronizationManager.release();
+    }
+
+    @Test
+    void shouldTagMetersWithCurrentJobExecution() {
+        inJobExecution(42L, () -> {
+            payrollMetrics.time(PayrollMetrics.Stage.CALCULATION, () -> "payroll");
+            payrollMetrics.count(PayrollMetrics.Outcome.BUILT);
+            payrollMetrics.countWritten(3);
+        });
+
+        assertEquals(1, meterRegistry.get(PayrollMetrics.STAGE_TIMER)
+                .tags("stage", "calculation", PayrollMetrics.JOB_EXECUTION_TAG, "42").timer().count());
+        assertEquals(1.0, meterRegistry.get(PayrollMetrics.ITEMS_COUNTER)
+                .tags("outcome", "built", PayrollMetrics.JOB_EXECUTION_TAG, "42").counter().count());
+        assertEquals(3.0, meterRegistry.get(PayrollMetrics.WRITTEN_COUNTER)
+                .tag(PayrollMetrics.JOB_EXECUTION_TAG, "42").counter().count());
+    }
+
+    @Test
+    void shouldReuseMetersOfJobExecution() {
+        inJobExecution(42L, () -> payrollMetrics.count(PayrollMetrics.Outcome.BUILT));
+        int meterCount = meterRegistry.getMeters().size();
+
+        inJobExecution(42L, () -> payrollMetrics.count(PayrollMetrics.Outcome.BUILT));
+
+        assertEquals(meterCount, meterRegistry.getMeters().size());
+        assertEquals(2.0, meterRegistry.get(PayrollMetrics.ITEMS_COUNTER)
+                .tags("outcome", "built", PayrollMetrics.JOB_EXECUTION_TAG, "42").counter().count());
+    }
+
+    @Test
+    void shouldTagMetersOutsideJobAsNone() {
+        payrollMetrics.time(PayrollMetrics.Stage.CONFIGURATION, () -> "configuration");
+
+        assertNotNull(meterRegistry.find(PayrollMetrics.STAGE_TIMER)
+                .tag(PayrollMetrics.JOB_EXECUTION_TAG, "none").timer());
+    }
+
+    @Test
+    void shouldRemoveMetersOfOldestJobExecutionBeyondRetention() {
+        for (long jobExecutionId = 1; jobExecutionId <= 3; jobExecutionId++) {
+            inJobExecution(jobExecutionId, () -> payrollMetrics.count(PayrollMetrics.Outcome.BUILT));
+        }
+
+        assertNull(meterRegistry.find(PayrollMetrics.ITEMS_COUNTER).tag(PayrollMetrics.JOB_EXECUTION_TAG, "1").counter());
+        assertNotNull(meterRegistry.find(PayrollMetrics.ITEMS_COUNTER).tag(PayrollMetrics.JOB_EXECUTION_TAG, "2").counter());
+        assertNotNull(meterRegistry.find(PayrollMetrics.ITEMS_COUNTER).tag(PayrollMetrics.JOB_EXECUTION_TAG, "3").counter());
+    }
+
+    private void inJobExecution(long jobExecutionId, Runnable runnable) {
+        StepSynchronizationManager.register(new StepExecution("generatePayrollStep", new JobExecution(jobExecutionId)));
+        try {
+            runnable.run();
+        } finally {
+            StepSynchronizationManager.close();
+        }
+    }
+
+}
@@ -8,6 +8,8 @@ import com.iodsky.sweldox.payroll.benefit.BenefitType;
 import com.iodsky.sweldox.payroll.core.*;
 import com.iodsky.sweldox.payroll.deduction.Deduction;
 import com.iodsky.sweldox.payroll.deduction.DeductionType;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtd;
+import com.iodsky.sweldox.payroll.ytd.PayrollYtdService;
 import com.iodsky.sweldox.security.user.User;
 import com.iodsky.sweldox.security.user.UserRole;
 import com.iodsky.sweldox.security.user.UserService;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,11 +26,15 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +46,8 @@ class PayrollServiceTest {
     @Mock private UserService userService;
     @Mock private DateRangeResolver dateRangeResolver;
     @Mock private PayrollBuilder payrollBuilder;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private PayrollYtdService payrollYtdService;
     @InjectMocks private PayrollService payrollService;
 
     private User payrollUser;
@@ -167,6 +176,7 @@ class PayrollServiceTest {
 
             verify(payrollBuilder).buildPayroll(employee.getId(), PERIOD_START, PERIOD_END, PAY_DATE);
             verify(payrollRepository).save(payroll);
+            verify(payrollYtdService).accumulate(List.of(PayrollYtd.of(payroll)));
         }
 
         @Test
@@ -334,6 +344,130 @@ class PayrollServiceTest {
         }
     }
 
+    @Nested
+    class RecomputeStalePayrollsTests {
+
+        @BeforeEach
+        void setUp() {
+            lenient().when(transactionTemplate.execute(any()))
+                    .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        }
+
+        @Test
+        void shouldRebuildStalePayrollInPlace() {
+            Deduction sss = Deduction.builder().id(UUID.randomUUID()).deductionType(sssType).amount(new BigDecimal("500.00")).payroll(payroll).build();
+            Deduction tax = Deduction.builder().id(UUID.randomUUID()).deductionType(taxType).amount(new BigDecimal("2000.00")).payroll(payroll).build();
+            payroll.getDeductions().addAll(List.of(sss, tax));
+            payroll.setStale(true);
+
+            Payroll rebuilt = Payroll.builder()
+                    .employee(employee)
+                    .daysWorked(9)
+                    .overtime(BigDecimal.ZERO)
+                    .grossPay(new BigDecimal("12857.13"))
+                    .totalBenefits(new BigDecimal("2000.00"))
+                    .totalDeductions(new BigDecimal("2200.00"))
+                    .netPay(new BigDecimal("12657.13"))
+                    .deductions(List.of(
+                            Deduction.builder().deductionType(sssType).amount(new BigDecimal("500.00")).build(),
+                            Deduction.builder().deductionType(taxType).amount(new BigDecimal("1700.00")).build()))
+                    .benefits(List.of(PayrollBenefit.builder().benefitType(riceAllowanceType).amount(new BigDecimal("2000.00")).build()))
+                    .build();
+
+            when(payrollRepository.findStaleIds()).thenReturn(List.of(payroll.getId()));
+            when(payrollRepository.findById(payroll.getId())).thenReturn(Optional.of(payroll));
+            when(payrollBuilder.buildPayroll(employee.getId(), PERIOD_START, PERIOD_END, PAY_DATE)).thenReturn(rebuilt);
+
+            int recomputed = payrollService.recomputeStalePayrolls(null, null);
+
+            assertEquals(1, recomputed);
+            assertFalse(payroll.isStale());
+            assertEquals(9, payroll.getDaysWorked());
+            assertEquals(new BigDecimal("12657.13"), payroll.getNetPay());
+            // Deduction rows are kept and updated, benefit rows added
+            assertEquals(List.of(sss, tax), payroll.getDeductions());
+            assertEquals(new BigDecimal("1700.00"), tax.getAmount());
+            assertEquals(1, payroll.getBenefits().size());
+            assertSame(payroll, payroll.getBenefits().getFirst().getPayroll());
+
+            // Only the difference is added to the year-to-date figures
+            PayrollYtd change = captureYtdChange();
+            assertEquals(0, change.payrollCount());
+            assertEquals(2025, change.year());
+            assertEquals(new BigDecimal("-1428.57"), change.grossPay());
+            assertEquals(new BigDecimal("-300.00"), change.withholdingTax());
+            assertEquals(new BigDecimal("0.00"), change.sss());
+        }
+
+        @SuppressWarnings("unchecked")
+        private PayrollYtd captureYtdChange() {
+            ArgumentCaptor<Collection<PayrollYtd>> changes = ArgumentCaptor.forClass(Collection.class);
+            verify(payrollYtdService).accumulate(changes.capture());
+            return changes.getValue().iterator().next();
+        }
+
+        @Test
+        void shouldKeepPayrollStaleWhenRecomputationFails() {
+            payroll.setStale(true);
+            UUID otherId = UUID.randomUUID();
+
+            when(payrollRepository.findStaleIdsByPeriod(PERIOD_START, PERIOD_END)).thenReturn(List.of(payroll.getId(), otherId));
+            when(payrollRepository.findById(payroll.getId())).thenReturn(Optional.of(payroll));
+            when(payrollRepository.findById(otherId)).thenReturn(Optional.empty());
+            when(payrollBuilder.buildPayroll(employee.getId(), PERIOD_START, PERIOD_END, PAY_DATE))
+                    .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Income tax bracket not found for income: -1.00"));
+
+            int recomputed = payrollService.recomputeStalePayrolls(PERIOD_START, PERIOD_END);
+
+            assertEquals(0, recomputed);
+            assertTrue(payroll.isStale());
+            verify(transactionTemplate, times(2)).execute(any());
+        }
+
+        @Test
+        void shouldKeepPayrollStaleWhenAttendanceChangesDuringRecomputation() {
+            payroll.setStale(true);
+            AtomicLong storedVersion = new AtomicLong(3);
+            AtomicLong loadedVersion = new AtomicLong();
+
+            when(payrollRepository.findStaleIds()).thenReturn(List.of(payroll.getId()));
+            when(payrollRepository.findById(payroll.getId())).thenAnswer(invocation -> {
+                loadedVersion.set(storedVersion.get());
+                return Optional.of(payroll);
+            });
+            // The payroll is already stale, the correction must still bump its version
+            when(payrollRepository.markStale(employee.getId(), PERIOD_START)).thenAnswer(invocation -> {
+                storedVersion.incrementAndGet();
+                return 1;
+            });
+            when(payrollBuilder.buildPayroll(employee.getId(), PERIOD_START, PERIOD_END, PAY_DATE)).thenAnswer(invocation -> {
+                payrollRepository.markStale(employee.getId(), PERIOD_START);
+                return payroll;
+            });
+            doAnswer(invocation -> {
+                Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+                if (storedVersion.get() != loadedVersion.get()) {
+                    throw new ObjectOptimisticLockingFailureException(Payroll.class, payroll.getId());
+                }
+                return result;
+            }).when(transactionTemplate).execute(any());
+
+            int recomputed = payrollService.recomputeStalePayrolls(null, null);
+
+            assertEquals(0, recomputed);
+            assertEquals(4, storedVersion.get());
+        }
+
+        @Test
+        void shouldRequireBothPeriodDates() {
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> payrollService.recomputeStalePayrolls(PERIOD_START, null));
+
+            assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+            verifyNoInteractions(payrollRepository);
+        }
+    }
+
     @Nested
     class GetPayrollByIdTests {
 
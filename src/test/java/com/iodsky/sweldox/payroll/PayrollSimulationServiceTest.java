@@ -0,0 +1,148 @@
+package com.iodsky.sweldox.payroll;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iodsky.sweldox.attendance.AttendanceService;
+import com.iodsky.sweldox.attendance.AttendanceSummary;
+import com.iodsky.sweldox.employee.Employee;
+import com.iodsky.sweldox.employee.EmployeeService;
+import com.iodsky.sweldox.payroll.core.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollSimulationServiceTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2025, 11, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2025, 11, 15);
+    private static final LocalDate PAY_DATE = LocalDate.of(2025, 11, 20);
+    private static final int PAGE_SIZE = 2;
+
+    @Mock private EmployeeService employeeService;
+    @Mock private AttendanceService attendanceService;
+    @Mock private PayrollBuilder payrollBuilder;
+    @Mock private PayrollCalculator payrollCalculator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ThreadPoolTaskExecutor executor;
+    private PayrollSimulationService simulationService;
+    private PayrollConfiguration config;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PayrollSimulationConfig().payrollSimulationExecutor(2, PAGE_SIZE);
+        executor.initialize();
+
+        simulationService = new PayrollSimulationService(employeeService, attendanceService, payrollBuilder,
+                payrollCalculator, new PayrollMapper(), objectMapper, executor);
+        ReflectionTestUtils.setField(simulationService, "pageSize", PAGE_SIZE);
+
+        config = PayrollConfiguration.builder().build();
+        lenient().when(payrollCalculator.loadConfiguration(PAY_DATE)).thenReturn(config);
+        lenient().when(attendanceService.getEmployeeAttendanceSummaries(anyCollection(), eq(PERIOD_START), eq(PERIOD_END)))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                        .collect(Collectors.toMap(Function.identity(), AttendanceSummary::empty)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldStreamEveryActiveEmployeeInIdOrderAcrossPages() throws Exception {
+        when(employeeService.getActiveEmployeeIdsAfter(0L, Long.MAX_VALUE, PAGE_SIZE)).thenReturn(List.of(1L, 2L));
+        when(employeeService.getActiveEmployeeIdsAfter(2L, Long.MAX_VALUE, PAGE_SIZE)).thenReturn(List.of(3L));
+        when(payrollBuilder.buildPayroll(anyLong(), eq(PERIOD_START), eq(PERIOD_END), eq(PAY_DATE), eq(config), any()))
+                .thenAnswer(invocation -> payroll(invocation.getArgument(0)));
+
+        List<JsonNode> lines = simulate(null);
+
+        assertEquals(List.of(1L, 2L, 3L), lines.stream().map(line -> line.get("employeeId").asLong()).toList());
+        assertEquals(0, new BigDecimal(lines.get(2).get("netPay").asText()).compareTo(new BigDecimal("3000.00")));
+        verify(attendanceService, times(2)).getEmployeeAttendanceSummaries(anyCollection(), eq(PERIOD_START), eq(PERIOD_END));
+    }
+
+    @Test
+    void shouldWriteErrorLineWhenPayrollCannotBeCalculated() throws Exception {
+        when(employeeService.getActiveEmployeeIdsAfter(0L, Long.MAX_VALUE, PAGE_SIZE)).thenReturn(List.of(1L));
+        when(payrollBuilder.buildPayroll(eq(1L), any(), any(), any(), any(), any()))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Income tax bracket not found for income: -1.00"));
+
+        List<JsonNode> lines = simulate(null);
+
+        assertEquals(1, lines.size());
+        assertEquals(1L, lines.getFirst().get("employeeId").asLong());
+        assertEquals("Income tax bracket not found for income: -1.00", lines.getFirst().get("error").asText());
+    }
+
+    @Test
+    void shouldSimulateSingleEmployeeWhenRequested() throws Exception {
+        when(payrollBuilder.buildPayroll(eq(7L), any(), any(), any(), any(), any())).thenReturn(payroll(7L));
+
+        List<JsonNode> lines = simulate(7L);
+
+        assertEquals(1, lines.size());
+        assertEquals(7L, lines.getFirst().get("employeeId").asLong());
+        verify(employeeService, never()).getActiveEmployeeIdsAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void shouldRejectPeriodEndingBeforeItStarts() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> simulationService.simulatePayroll(null, PERIOD_END, PERIOD_START, PAY_DATE));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(payrollCalculator);
+    }
+
+    private List<JsonNode> simulate(Long employeeId) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        simulationService.simulatePayroll(employeeId, PERIOD_START, PERIOD_END, PAY_DATE).writeTo(out);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static Payroll payroll(Long employeeId) {
+        Employee employee = new Employee();
+        employee.setId(employeeId);
+
+        return Payroll.builder()
+                .employee(employee)
+                .periodStartDate(PERIOD_START)
+                .periodEndDate(PERIOD_END)
+                .payDate(PAY_DATE)
+                .netPay(new BigDecimal(employeeId * 1000).setScale(2))
+                .deductions(List.of())
+                .benefits(List.of())
+                .build();
+    }
+
+}
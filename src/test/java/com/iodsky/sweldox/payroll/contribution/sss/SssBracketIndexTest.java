@@ -0,0 +1,119 @@
+package com.iodsky.sweldox.payroll.contribution.sss;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SssBracketIndexTest {
+
+    private static SssContribution.SalaryBracket bracket(String min, String max, String msc) {
+        return new SssContribution.SalaryBracket(
+                new BigDecimal(min), max == null ? null : new BigDecimal(max), new BigDecimal(msc));
+    }
+
+    private static SssContribution contribution(List<SssContribution.SalaryBracket> brackets) {
+        return SssContribution.builder()
+                .employeeRate(new BigDecimal("0.0500"))
+                .salaryBrackets(brackets)
+                .build();
+    }
+
+    private static List<SssContribution.SalaryBracket> sssTable() {
+        List<SssContribution.SalaryBracket> brackets = new ArrayList<>();
+        brackets.add(bracket("0", "5249.99", "5000"));
+        for (int msc = 5_500; msc < 35_000; msc += 500) {
+            brackets.add(bracket(String.valueOf(msc - 250), (msc + 249) + ".99", String.valueOf(msc)));
+        }
+        brackets.add(bracket("34750", null, "35000"));
+        return brackets;
+    }
+
+    @Nested
+    class CompileTests {
+        @Test
+        void shouldRejectOverlappingBrackets() {
+            SssContribution contribution = contribution(List.of(
+                    bracket("0", "5250.00", "5000"),
+                    bracket("5250", null, "5500")));
+
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> SssBracketIndex.compile(contribution));
+
+            assertTrue(ex.getMessage().contains("overlap"));
+        }
+
+        @Test
+        void shouldRejectGapsBetweenBrackets() {
+            SssContribution contribution = contribution(List.of(
+                    bracket("0", "5249.99", "5000"),
+                    bracket("5250.01", null, "5500")));
+
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> SssBracketIndex.compile(contribution));
+
+            assertTrue(ex.getMessage().contains("gap"));
+        }
+
+        @Test
+        void shouldRejectOpenEndedBracketBeforeTheLast() {
+            SssContribution contribution = contribution(List.of(
+                    bracket("0", null, "5000"),
+                    bracket("5250", "5749.99", "5500")));
+
+            assertThrows(IllegalArgumentException.class, () -> SssBracketIndex.compile(contribution));
+        }
+
+        @Test
+        void shouldAcceptUnsortedContiguousBrackets() {
+            SssContribution contribution = contribution(List.of(
+                    bracket("5250", null, "5500"),
+                    bracket("0", "5249.99", "5000")));
+
+            SssBracketIndex index = SssBracketIndex.compile(contribution);
+
+            assertEquals(new BigDecimal("5000"), index.findMsc(new BigDecimal("5249.99")));
+            assertEquals(new BigDecimal("5500"), index.findMsc(new BigDecimal("5250.00")));
+        }
+    }
+
+    @Nested
+    class FindMscTests {
+        @Test
+        void shouldMatchLinearLookupForRandomSalaries() {
+            SssContribution contribution = contribution(sssTable());
+            SssBracketIndex index = SssBracketIndex.compile(contribution);
+            Random random = new Random(20250101L);
+
+            for (int i = 0; i < 10_000; i++) {
+                BigDecimal salary = BigDecimal.valueOf(random.nextLong(0, 6_000_000), 2);
+
+                assertEquals(contribution.findBracket(salary).getMsc(), index.findMsc(salary), "salary " + salary);
+            }
+        }
+
+        @Test
+        void shouldMatchLinearLookupForFractionOfCentavoSalaries() {
+            SssContribution contribution = contribution(sssTable());
+            SssBracketIndex index = SssBracketIndex.compile(contribution);
+            BigDecimal salary = new BigDecimal("5249.995");
+
+            assertThrows(IllegalArgumentException.class, () -> contribution.findBracket(salary));
+            assertThrows(IllegalArgumentException.class, () -> index.findMsc(salary));
+        }
+
+        @Test
+        void shouldThrowWhenSalaryIsBelowTheFirstBracket() {
+            SssBracketIndex index = SssBracketIndex.compile(contribution(List.of(bracket("1000", null, "5000"))));
+
+            assertThrows(IllegalArgumentException.class, () -> index.findMsc(new BigDecimal("999.99")));
+            assertEquals(-1, index.indexOf(99_999L));
+        }
+    }
+
+}
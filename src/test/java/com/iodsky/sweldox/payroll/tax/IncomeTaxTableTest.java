@@ -0,0 +1,86 @@
+package com.iodsky.sweldox.payroll.tax;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncomeTaxTableTest {
+
+    private static IncomeTaxBracket bracket(String min, String max) {
+        return IncomeTaxBracket.builder()
+                .minIncome(new BigDecimal(min))
+                .maxIncome(max == null ? null : new BigDecimal(max))
+                .baseTax(BigDecimal.ZERO)
+                .marginalRate(BigDecimal.ZERO)
+                .threshold(new BigDecimal(min))
+                .build();
+    }
+
+    private static List<IncomeTaxBracket> trainTable() {
+        return List.of(
+                bracket("0", "20832"),
+                bracket("20833", "33332"),
+                bracket("33333", "66666"),
+                bracket("66667", "166666"),
+                bracket("166667", "666666"),
+                bracket("666667", null));
+    }
+
+    private static IncomeTaxBracket firstMatch(List<IncomeTaxBracket> brackets, BigDecimal income) {
+        return brackets.stream()
+                .sorted(Comparator.comparing(IncomeTaxBracket::getMinIncome))
+                .filter(b -> income.compareTo(b.getMinIncome()) >= 0
+                        && (b.getMaxIncome() == null || income.compareTo(b.getMaxIncome()) <= 0))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Test
+    void shouldMatchLinearLookupForRandomIncomes() {
+        List<IncomeTaxBracket> brackets = trainTable();
+        IncomeTaxTable table = IncomeTaxTable.compile(brackets);
+        Random random = new Random(20250101L);
+
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal income = BigDecimal.valueOf(random.nextLong(0, 100_000_000), 2);
+
+            assertSame(firstMatch(brackets, income), table.find(income), "income " + income);
+        }
+    }
+
+    @Test
+    void shouldReturnNullInsideGapsBetweenBrackets() {
+        IncomeTaxTable table = IncomeTaxTable.compile(trainTable());
+
+        assertNull(table.find(new BigDecimal("20832.50")));
+        assertSame(table.getBrackets().get(1), table.find(new BigDecimal("20833")));
+    }
+
+    @Test
+    void shouldResolveOverlapsToTheFirstBracket() {
+        List<IncomeTaxBracket> brackets = List.of(
+                bracket("10000", null),
+                bracket("0", "20000"),
+                bracket("15000", "30000"));
+        IncomeTaxTable table = IncomeTaxTable.compile(brackets);
+
+        for (String income : List.of("0", "9999.99", "10000", "15000", "20000", "25000", "30000.01")) {
+            BigDecimal amount = new BigDecimal(income);
+            assertSame(firstMatch(brackets, amount), table.find(amount), "income " + income);
+        }
+    }
+
+    @Test
+    void shouldReturnNullBelowTheFirstBracket() {
+        IncomeTaxTable table = IncomeTaxTable.compile(List.of(bracket("1000", null)));
+
+        assertNull(table.find(new BigDecimal("999.99")));
+        assertEquals(-1, table.indexOf(99_999L));
+    }
+
+}